@@ -0,0 +1,85 @@
+package com.nayaware.jdockers;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+
+import javax.swing.ImageIcon;
+
+/**
+ * A thread-safe view of a Layout Manager for background threads. Its methods
+ * may be called from any thread; they queue the call and return at once. The
+ * queued calls are executed in the order they were made, in batches on the
+ * event dispatch thread, instead of one <code>invokeLater()</code> per call.
+ * The returned futures complete when the call was executed and yield its
+ * result, or <code>null</code> for calls without a result. Exceptions of a
+ * call are reported by <code>Future.get()</code>; while debugging is enabled
+ * they are logged as well.
+ * <p>
+ * Calls are queued even when made on the event dispatch thread, so they
+ * never overtake calls queued earlier. Do not wait for a future on the event
+ * dispatch thread.
+ *
+ * @see LayoutManager#async()
+ */
+public interface AsyncLayoutManager {
+	/**
+	 * Queues {@link LayoutManager#createDockableWindow(String, String, ImageIcon)}.
+	 *
+	 * @return future of the new <code>DockableWindow</code>
+	 */
+	public Future createDockableWindow(String name, String title,
+			ImageIcon icon);
+
+	/**
+	 * Queues {@link LayoutManager#createDocumentWindow(String, String, ImageIcon)}.
+	 *
+	 * @return future of the new <code>DocumentWindow</code>
+	 */
+	public Future createDocumentWindow(String name, String title,
+			ImageIcon icon);
+
+	/**
+	 * Queues {@link LayoutManager#findLayoutWindow(String)}.
+	 *
+	 * @return future of the <code>LayoutWindow</code> or <code>null</code>
+	 */
+	public Future findLayoutWindow(String layoutWindowName);
+
+	/**
+	 * Queues {@link LayoutManager#openLayoutWindow(LayoutWindow)}.
+	 */
+	public Future openLayoutWindow(LayoutWindow layoutWindow);
+
+	/**
+	 * Queues {@link LayoutManager#closeLayoutWindow(LayoutWindow)}.
+	 */
+	public Future closeLayoutWindow(LayoutWindow layoutWindow);
+
+	/**
+	 * Queues {@link LayoutManager#showLayoutWindow(LayoutWindow)}.
+	 */
+	public Future showLayoutWindow(LayoutWindow layoutWindow);
+
+	/**
+	 * Queues {@link LayoutManager#hideLayoutWindow(LayoutWindow)}.
+	 */
+	public Future hideLayoutWindow(LayoutWindow layoutWindow);
+
+	/**
+	 * Queues {@link LayoutManager#activateLayoutWindow(LayoutWindow)}.
+	 */
+	public Future activateLayoutWindow(LayoutWindow layoutWindow);
+
+	/**
+	 * Queues {@link LayoutManager#updateLayoutWindow(LayoutWindow)}.
+	 */
+	public Future updateLayoutWindow(LayoutWindow layoutWindow);
+
+	/**
+	 * Queues an arbitrary task which may call the Layout Manager, e.g. to set
+	 * the title of a window together with other queued calls.
+	 *
+	 * @return future of the task's result
+	 */
+	public Future submit(Callable task);
+}
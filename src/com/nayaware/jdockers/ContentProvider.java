@@ -0,0 +1,45 @@
+package com.nayaware.jdockers;
+
+import javax.swing.JComponent;
+
+/**
+ * A content provider creates the content of a Layout Window. Set on a
+ * Document Window, it creates the content when the window is first selected,
+ * so that documents which are opened but never looked at don't cost anything.
+ * Passed to a startup pipeline, it creates the content of a window declared at
+ * startup. The work is split in two steps: loading the content, e.g. reading
+ * and parsing a file, may happen on a background thread, while the component
+ * is always created on the event dispatch thread.
+ *
+ * @see DocumentWindow#setContentProvider(ContentProvider)
+ * @see PrefetchPolicy
+ * @see StartupPipeline
+ */
+public interface ContentProvider {
+	/**
+	 * Loads the content of the window. Called on a background thread if the
+	 * content is prefetched or created by a startup pipeline, otherwise on the
+	 * event dispatch thread when the window is selected. Must not create or
+	 * access Swing components.
+	 *
+	 * @param window
+	 *            the window
+	 * @return the loaded content, passed to
+	 *         {@link #createComponent(LayoutWindow, Object)}
+	 * @throws Exception
+	 *             if the content can't be loaded
+	 */
+	public Object loadContent(LayoutWindow window) throws Exception;
+
+	/**
+	 * Creates the component which displays the loaded content. Always called
+	 * on the event dispatch thread.
+	 *
+	 * @param window
+	 *            the window
+	 * @param content
+	 *            the result of {@link #loadContent(LayoutWindow)}
+	 * @return the component added to the window (never <code>null</code>)
+	 */
+	public JComponent createComponent(LayoutWindow window, Object content);
+}
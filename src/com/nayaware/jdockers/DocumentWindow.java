@@ -26,4 +26,22 @@ public interface DocumentWindow extends DockableWindow {
 	 *            the listener
 	 */
 	public void removeDocumentWindowListener(DocumentWindowListener listener);
+
+	/**
+	 * Sets the provider which creates the content of this window. Whenever
+	 * the window is selected and has no component, the provider's content is
+	 * added as its component. The content may be prefetched before, see
+	 * {@link PrefetchPolicy}.
+	 * 
+	 * @param provider
+	 *            the content provider or <code>null</code>
+	 */
+	public void setContentProvider(ContentProvider provider);
+
+	/**
+	 * Returns the provider which creates the content of this window.
+	 * 
+	 * @return the content provider or <code>null</code> if none is set
+	 */
+	public ContentProvider getContentProvider();
 }
\ No newline at end of file
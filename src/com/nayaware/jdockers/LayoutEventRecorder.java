@@ -0,0 +1,131 @@
+package com.nayaware.jdockers;
+
+import java.util.EventListener;
+
+/**
+ * A recorder receives timed events about the work of the Layout Manager, for
+ * example to forward them to a profiler like Java Flight Recorder, where each
+ * method maps to a custom event type. Events are recorded on the event
+ * dispatch thread while the operation is in progress, so implementations must
+ * be fast and must not call the Layout Manager. Times are in nanoseconds as
+ * returned by <code>System.nanoTime()</code>.
+ *
+ * @see LayoutManager#setEventRecorder(LayoutEventRecorder)
+ */
+public interface LayoutEventRecorder {
+	/**
+	 * Recorded after the layout was saved. Triggered by
+	 * {@link LayoutManager#getLayout()} and
+	 * {@link LayoutManager#saveLayout(java.io.File)}.
+	 *
+	 * @param start
+	 *            start time
+	 * @param duration
+	 *            duration
+	 * @param size
+	 *            size of the layout data in characters
+	 * @param windowCount
+	 *            number of opened windows
+	 */
+	public void layoutSaved(long start, long duration, long size,
+			int windowCount);
+
+	/**
+	 * Recorded after a layout was loaded. Triggered by
+	 * {@link LayoutManager#setLayout(String)} and
+	 * {@link LayoutManager#loadLayout(java.io.File)}.
+	 *
+	 * @param start
+	 *            start time
+	 * @param duration
+	 *            duration
+	 * @param size
+	 *            size of the layout data in characters (or bytes if loaded
+	 *            from a file)
+	 * @param windowCount
+	 *            number of opened windows
+	 */
+	public void layoutLoaded(long start, long duration, long size,
+			int windowCount);
+
+	/**
+	 * Recorded after a Dockable Window was auto-hidden, floated or docked
+	 * again, both by the application and the user.
+	 *
+	 * @param window
+	 *            the window (if a whole pane changed its state, its selected
+	 *            window)
+	 * @param oldState
+	 *            dock state before
+	 * @param newState
+	 *            dock state after
+	 * @param start
+	 *            start time
+	 * @param duration
+	 *            duration
+	 */
+	public void dockStateChanged(LayoutWindow window, String oldState,
+			String newState, long start, long duration);
+
+	/**
+	 * Recorded after the user dropped a dragged window or pane.
+	 *
+	 * @param start
+	 *            time the drag gesture was recognized
+	 * @param duration
+	 *            duration of the gesture
+	 * @param events
+	 *            number of mouse events processed during the gesture
+	 * @param targetLookups
+	 *            number of component lookups for the drop target
+	 */
+	public void dragGestureEnded(long start, long duration, int events,
+			int targetLookups);
+
+	/**
+	 * Recorded after a window was added to or removed from the Layout Pane.
+	 *
+	 * @param operation
+	 *            <code>"add"</code> or <code>"remove"</code>
+	 * @param window
+	 *            the window
+	 * @param start
+	 *            start time
+	 * @param duration
+	 *            duration
+	 */
+	public void paneTreeChanged(String operation, LayoutWindow window,
+			long start, long duration);
+
+	/**
+	 * Recorded after the pane of an auto-hidden window was shown or hidden.
+	 *
+	 * @param window
+	 *            the selected window of the pane
+	 * @param shown
+	 *            <code>true</code> if shown, <code>false</code> if hidden
+	 * @param start
+	 *            start time
+	 * @param duration
+	 *            duration
+	 */
+	public void autohidePaneChanged(LayoutWindow window, boolean shown,
+			long start, long duration);
+
+	/**
+	 * Recorded after a listener of the Layout Manager or of a Dockable Window
+	 * was notified.
+	 *
+	 * @param event
+	 *            name of the listener method, e.g.
+	 *            <code>"layoutWindowOpened"</code>
+	 * @param listener
+	 *            the listener
+	 * @param start
+	 *            start time
+	 * @param duration
+	 *            duration of the listener's method
+	 */
+	public void listenerDispatched(String event, EventListener listener,
+			long start, long duration);
+}
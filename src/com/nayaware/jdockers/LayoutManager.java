@@ -2,6 +2,7 @@ package com.nayaware.jdockers;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Map;
 import java.util.Set;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
@@ -28,6 +29,26 @@ public interface LayoutManager {
 	 */
 	public static final String TYPE_DOCUMENT = "document";
 
+	/**
+	 * Resize mode constant for {@link #setFloatingFrameResizeMode(String)}.
+	 * Floating frames are resized with every mouse drag event.
+	 */
+	public static final String RESIZE_MODE_LIVE = "live";
+
+	/**
+	 * Resize mode constant for {@link #setFloatingFrameResizeMode(String)}.
+	 * Floating frames are resized while dragging but not more often than the
+	 * display refreshes.
+	 */
+	public static final String RESIZE_MODE_THROTTLED = "throttled";
+
+	/**
+	 * Resize mode constant for {@link #setFloatingFrameResizeMode(String)}.
+	 * Only an outline is shown while dragging, the floating frame is resized
+	 * once the mouse is released.
+	 */
+	public static final String RESIZE_MODE_OUTLINE = "outline";
+
 	/**
 	 * Adds a listener to this Layout Manager.
 	 * 
@@ -163,7 +184,9 @@ public interface LayoutManager {
 	/**
 	 * Updates the Layout Window display based on its state. Actually, this
 	 * simply triggers the layoutWindowChanged event. The window must be created
-	 * by this Layout Manager.
+	 * by this Layout Manager. The event is fired with the next frame and only
+	 * once for all updates of the window until then, so this method may be
+	 * called many times per second.
 	 * 
 	 * @param layoutWindow
 	 *            LayoutWindow
@@ -174,6 +197,25 @@ public interface LayoutManager {
 	 */
 	public void updateLayoutWindow(LayoutWindow layoutWindow);
 
+	/**
+	 * Returns a thread-safe view of this Layout Manager which queues calls
+	 * from background threads and executes them in batches on the event
+	 * dispatch thread. All other methods must be called on the event dispatch
+	 * thread.
+	 * 
+	 * @return the asynchronous view (never <code>null</code>)
+	 */
+	public AsyncLayoutManager async();
+
+	/**
+	 * Creates a pipeline to declare many windows at startup whose contents are
+	 * loaded in parallel on background threads and added to the windows on
+	 * the event dispatch thread, the shown windows first.
+	 * 
+	 * @return a new pipeline
+	 */
+	public StartupPipeline createStartupPipeline();
+
 	/**
 	 * Finds a Layout Window.
 	 * 
@@ -404,6 +446,149 @@ public interface LayoutManager {
 	 */
 	public void setLayout(String layoutData) throws IOException;
 
+	/**
+	 * Enables layout snapshots. If enabled, {@link #saveLayout(File)} also
+	 * stores a downscaled image of the Layout Pane in a file next to the
+	 * layout file, named like the layout file with the suffix
+	 * <code>.snapshot</code>. {@link #loadLayout(File)} shows this image in
+	 * place of the Layout Pane while the layout is restored, so users see the
+	 * familiar layout at once instead of a blank or half built pane. A
+	 * missing, unreadable or unwritable snapshot is ignored. Disabled by
+	 * default.
+	 * <p>
+	 * The snapshot is only shown if the Layout Pane is already showing when
+	 * <code>loadLayout()</code> is called. In the usual order, loading the
+	 * layout before the frame is shown, there is nothing to replace and this
+	 * setting has no effect; show the frame first to benefit from it.
+	 * 
+	 * @param enable
+	 *            <code>true</code> to save and show snapshots
+	 */
+	public void setLayoutSnapshotEnabled(boolean enable);
+
+	/**
+	 * Returns whether layout snapshots are saved and shown.
+	 * 
+	 * @return <code>true</code> if enabled
+	 */
+	public boolean isLayoutSnapshotEnabled();
+
+	/**
+	 * Sets how floating frames follow the mouse while they are resized. The
+	 * default is {@link #RESIZE_MODE_THROTTLED}.
+	 * 
+	 * @param mode
+	 *            live, throttled or outline resize mode
+	 * @throws IllegalArgumentException
+	 *             if mode is none of the resize mode constants
+	 */
+	public void setFloatingFrameResizeMode(String mode);
+
+	/**
+	 * Returns how floating frames follow the mouse while they are resized.
+	 * 
+	 * @return resize mode (never <code>null</code>)
+	 */
+	public String getFloatingFrameResizeMode();
+
+	/**
+	 * Sets the recorder which receives timed events about layout operations,
+	 * dock state changes, drag gestures and listener notifications. Without a
+	 * recorder (the default) no events are created.
+	 * 
+	 * @param recorder
+	 *            the recorder or <code>null</code> to stop recording
+	 */
+	public void setEventRecorder(LayoutEventRecorder recorder);
+
+	/**
+	 * Returns the recorder which receives timed events.
+	 * 
+	 * @return the recorder or <code>null</code> if none is set
+	 */
+	public LayoutEventRecorder getEventRecorder();
+
+	/**
+	 * Sets the policy which chooses the Document Windows whose contents are
+	 * prefetched after a document tab was selected. The default policy
+	 * chooses the two most recently selected windows of the document
+	 * container and the next and previous tab.
+	 * 
+	 * @param policy
+	 *            the policy or <code>null</code> to disable prefetching
+	 * @see DocumentWindow#setContentProvider(ContentProvider)
+	 */
+	public void setPrefetchPolicy(PrefetchPolicy policy);
+
+	/**
+	 * Returns the policy which chooses the prefetched Document Windows.
+	 * 
+	 * @return the policy or <code>null</code> if prefetching is disabled
+	 */
+	public PrefetchPolicy getPrefetchPolicy();
+
+	/**
+	 * Returns a rough estimate of the memory retained by the layout system for
+	 * the opened and created windows. The components added to the windows by
+	 * the application are not counted.
+	 * 
+	 * @return map from window type ({@link #TYPE_DOCKABLE},
+	 *         {@link #TYPE_DOCUMENT}) to the estimated bytes as
+	 *         <code>Long</code> (never <code>null</code>)
+	 */
+	public Map getMemoryStats();
+
+	/**
+	 * Returns the runtime statistics of this Layout Manager.
+	 * 
+	 * @return the metrics (never <code>null</code>)
+	 */
+	public LayoutMetrics getMetrics();
+
+	/**
+	 * Registers the runtime statistics as an MBean with the platform MBean
+	 * server, so they can be watched with JMX clients like JConsole, or
+	 * unregisters them. The MBean is named
+	 * <code>com.nayaware.jdockers:type=LayoutMetrics,id=</code><i>n</i>.
+	 * 
+	 * @param enable
+	 *            <code>true</code> to register, <code>false</code> to
+	 *            unregister
+	 * @throws LayoutManagerException
+	 *             if the MBean server refuses the operation
+	 */
+	public void enableMetricsMBean(boolean enable);
+
+	/**
+	 * Enables the reporting of slow layout operations. Operations which keep
+	 * the event dispatch thread busy for longer than the threshold are
+	 * reported to <code>System.err</code> with the calling stack and the
+	 * number of components of the layout pane, and a watchdog reports the
+	 * stack of the event dispatch thread while such an operation is still
+	 * running. The setting applies to all Layout Managers. Reporting is
+	 * disabled by default.
+	 * 
+	 * @param millis
+	 *            threshold in milliseconds, <code>0</code> disables reporting
+	 * @throws IllegalArgumentException
+	 *             if millis is negative
+	 */
+	public void setSlowOperationThreshold(int millis);
+
+	/**
+	 * Returns the threshold for reporting slow layout operations.
+	 * 
+	 * @return threshold in milliseconds, <code>0</code> if disabled
+	 */
+	public int getSlowOperationThreshold();
+
+	/**
+	 * Returns the most recent slow operation reports, the oldest first.
+	 * 
+	 * @return reports (never <code>null</code>)
+	 */
+	public String[] getSlowOperationReports();
+
 	/**
 	 * Flag for enabling Layout Manager Debug
 	 * 
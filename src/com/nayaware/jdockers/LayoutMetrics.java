@@ -0,0 +1,150 @@
+package com.nayaware.jdockers;
+
+import java.util.Map;
+
+/**
+ * Runtime statistics of a Layout Manager. The methods may be called from any
+ * thread, e.g. by a JMX client, and always return current values. Only the
+ * component count and the tree depth walk the component tree, on the event
+ * dispatch thread; called from another thread, they wait for it.
+ * <p>
+ * Times are collected in histograms with the bucket bounds returned by
+ * {@link #getHistogramBounds()}; element <code>i</code> of a histogram counts
+ * the times up to bound <code>i</code>, the last element counts the longer
+ * times.
+ *
+ * @see LayoutManager#getMetrics()
+ * @see LayoutManager#enableMetricsMBean(boolean)
+ */
+public interface LayoutMetrics {
+	/**
+	 * Returns the number of opened Dockable Windows.
+	 */
+	public int getDockableWindowCount();
+
+	/**
+	 * Returns the number of opened Document Windows.
+	 */
+	public int getDocumentWindowCount();
+
+	/**
+	 * Returns the number of shown Layout Windows.
+	 */
+	public int getShownWindowCount();
+
+	/**
+	 * Returns the number of shown Dockable Windows which are docked.
+	 */
+	public int getDockedWindowCount();
+
+	/**
+	 * Returns the number of shown Dockable Windows which are floating.
+	 */
+	public int getFloatingWindowCount();
+
+	/**
+	 * Returns the number of shown Dockable Windows which are auto-hidden.
+	 */
+	public int getAutoHiddenWindowCount();
+
+	/**
+	 * Returns the number of components of the Layout Pane and of the open
+	 * floating frames.
+	 */
+	public int getComponentCount();
+
+	/**
+	 * Returns the depth of the component tree of the Layout Pane.
+	 */
+	public int getPaneTreeDepth();
+
+	/**
+	 * Returns the average time in nanoseconds needed to paint the title bar of
+	 * a pane, per pane type.
+	 *
+	 * @return map from the class name of the pane to the average time as
+	 *         <code>Long</code>; pane types which weren't painted since the
+	 *         last reset are missing
+	 */
+	public Map getTitlePaintTimes();
+
+	/**
+	 * Returns the number of open floating frames.
+	 */
+	public int getFloatingFrameCount();
+
+	/**
+	 * Returns how often a pooled floating frame was reused.
+	 */
+	public long getFloatingFramePoolHits();
+
+	/**
+	 * Returns how often a new floating frame was created.
+	 */
+	public long getFloatingFrameCreations();
+
+	/**
+	 * Returns the number of listener notifications of the Layout Manager and
+	 * of Dockable Windows.
+	 */
+	public long getListenerDispatchCount();
+
+	/**
+	 * Returns how often the layout hint of a Dockable Window was recomputed.
+	 */
+	public long getLayoutHintUpdateCount();
+
+	/**
+	 * Returns how many Document Window contents were prefetched.
+	 */
+	public long getPrefetchCount();
+
+	/**
+	 * Returns how often a selected Document Window found its content
+	 * prefetched.
+	 */
+	public long getPrefetchHitCount();
+
+	/**
+	 * Returns how often the content of a selected Document Window had to be
+	 * loaded because it wasn't prefetched.
+	 */
+	public long getPrefetchMissCount();
+
+	/**
+	 * Returns how many prefetched contents were never shown, because the
+	 * window was closed, got a component from the application or its content
+	 * couldn't be loaded.
+	 */
+	public long getWastedPrefetchCount();
+
+	/**
+	 * Returns how often the layout was saved.
+	 */
+	public long getLayoutSaveCount();
+
+	/**
+	 * Returns how often a layout was loaded.
+	 */
+	public long getLayoutLoadCount();
+
+	/**
+	 * Returns the histogram of the layout save times.
+	 */
+	public long[] getLayoutSaveTimes();
+
+	/**
+	 * Returns the histogram of the layout load times.
+	 */
+	public long[] getLayoutLoadTimes();
+
+	/**
+	 * Returns the upper bounds of the histogram buckets in milliseconds.
+	 */
+	public long[] getHistogramBounds();
+
+	/**
+	 * Resets all counters and histograms to zero.
+	 */
+	public void resetCounters();
+}
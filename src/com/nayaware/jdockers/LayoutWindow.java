@@ -34,7 +34,8 @@ public interface LayoutWindow {
 
 	/**
 	 * Sets the title of the Layout Window. To be displayed as the title of the
-	 * window. Bound property.
+	 * window. Bound property; the change event is fired with the next frame
+	 * and only once for all changes until then.
 	 * 
 	 * @param title
 	 *            Title of the Layout Window (or <code>null</code>).
@@ -50,7 +51,8 @@ public interface LayoutWindow {
 	public String getTitle();
 
 	/**
-	 * Sets the icon of the Layout Window. Bound property.
+	 * Sets the icon of the Layout Window. Bound property; the change event is
+	 * fired with the next frame and only once for all changes until then.
 	 * 
 	 * @param icon
 	 *            Image Icon for the Layout Window (or <code>null</code>).
@@ -157,6 +159,27 @@ public interface LayoutWindow {
 	 */
 	public void addComponent(JComponent comp, String tabName, ImageIcon icon);
 
+	/**
+	 * Adds a number of displayable components to the Layout Window at once.
+	 * This is faster than adding the components one by one. Tab names should
+	 * be unique; if they aren't, the component added first is found by name.
+	 * 
+	 * @param comps
+	 *            Components that need to be added to this Layout Window
+	 * @param tabNames
+	 *            Names of the tabs that hold these components
+	 * @param icons
+	 *            optional icons displayed in front of the tabNames (or
+	 *            <code>null</code>).
+	 * @throws NullPointerException
+	 *             if comps, tabNames or one of their elements is
+	 *             <code>null</code>.
+	 * @throws IllegalArgumentException
+	 *             if the arrays have different lengths.
+	 */
+	public void addComponents(JComponent[] comps, String[] tabNames,
+			ImageIcon[] icons);
+
 	/**
 	 * Removes the named component. Fails silently if the name is unknown or
 	 * <code>null</code>.
@@ -0,0 +1,30 @@
+package com.nayaware.jdockers;
+
+/**
+ * A prefetch policy decides which Document Windows are likely to be selected
+ * next. After the user selected a document tab, the contents of the returned
+ * windows are loaded on a background thread and their components are created
+ * while the event dispatch thread is idle, so that selecting them doesn't
+ * block. Only windows with a {@link ContentProvider} whose content wasn't
+ * created yet are prefetched; other returned windows are ignored.
+ *
+ * @see LayoutManager#setPrefetchPolicy(PrefetchPolicy)
+ */
+public interface PrefetchPolicy {
+	/**
+	 * Returns the windows to prefetch, the most likely first. Called on the
+	 * event dispatch thread each time a tab of a document container is
+	 * selected.
+	 *
+	 * @param selected
+	 *            the selected window
+	 * @param windows
+	 *            all windows of its container in tab order
+	 * @param recentWindows
+	 *            the previously selected windows of its container, the most
+	 *            recent first
+	 * @return windows to prefetch (may be empty but not <code>null</code>)
+	 */
+	public DocumentWindow[] getPrefetchCandidates(DocumentWindow selected,
+			DocumentWindow[] windows, DocumentWindow[] recentWindows);
+}
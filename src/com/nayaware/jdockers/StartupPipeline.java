@@ -0,0 +1,75 @@
+package com.nayaware.jdockers;
+
+import java.util.concurrent.Future;
+
+import javax.swing.ImageIcon;
+
+/**
+ * A startup pipeline creates the contents of many windows at once. The
+ * windows are declared with a {@link ContentProvider} and created at once, so
+ * a layout can be loaded before their contents exist. When the pipeline is
+ * started, the contents are loaded in parallel on background threads, and
+ * each loaded content's component is added to its window on the event
+ * dispatch thread. Among the loaded contents, the components of shown windows
+ * are added first, then by priority, then in the order of declaration; the
+ * event dispatch thread adds components for at most one frame interval at a
+ * time, so the first windows are painted while others are still loading.
+ * <p>
+ * All methods must be called on the event dispatch thread. A pipeline can be
+ * started once.
+ *
+ * <pre>
+ * StartupPipeline pipeline = layoutManager.createStartupPipeline();
+ * for (int i = 0; i &lt; files.length; i++) {
+ * 	pipeline.addDocumentWindow(files[i].getName(), files[i].getName(), null,
+ * 			new FileContentProvider(files[i]), 0);
+ * }
+ * layoutManager.loadLayout(layoutFile);
+ * pipeline.start();
+ * </pre>
+ *
+ * @see LayoutManager#createStartupPipeline()
+ */
+public interface StartupPipeline {
+	/**
+	 * Creates a Dockable Window whose content is created by the pipeline.
+	 *
+	 * @param priority
+	 *            windows with a higher priority get their component first
+	 * @return the new window
+	 * @throws NullPointerException
+	 *             if name or provider is <code>null</code>
+	 * @throws LayoutManagerException
+	 *             if the name is already in use or the pipeline was started
+	 * @see LayoutManager#createDockableWindow(String, String, ImageIcon)
+	 */
+	public DockableWindow addDockableWindow(String name, String title,
+			ImageIcon icon, ContentProvider provider, int priority);
+
+	/**
+	 * Creates a Document Window whose content is created by the pipeline.
+	 *
+	 * @param priority
+	 *            windows with a higher priority get their component first
+	 * @return the new window
+	 * @throws NullPointerException
+	 *             if name or provider is <code>null</code>
+	 * @throws LayoutManagerException
+	 *             if the name is already in use or the pipeline was started
+	 * @see LayoutManager#createDocumentWindow(String, String, ImageIcon)
+	 */
+	public DocumentWindow addDocumentWindow(String name, String title,
+			ImageIcon icon, ContentProvider provider, int priority);
+
+	/**
+	 * Starts loading the contents of the declared windows. Returns at once.
+	 *
+	 * @return future which completes when all components were added; its
+	 *         <code>get()</code> throws an <code>ExecutionException</code>
+	 *         if a content couldn't be created (the other windows get their
+	 *         components anyway)
+	 * @throws LayoutManagerException
+	 *             if the pipeline was already started
+	 */
+	public Future start();
+}
@@ -29,7 +29,9 @@ import java.awt.event.MouseMotionListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Vector;
+import java.util.WeakHashMap;
 
 import javax.swing.AbstractAction;
 import javax.swing.ActionMap;
@@ -71,6 +73,8 @@ import javax.swing.text.View;
  * TabbedPaneScrollLayout.layoutContainer - layout the close button
  * ScrollableTabSupport - added close button variable
  * ScrollableTabViewport - fix for wrong GTK background
+ * calculateTabWidth - plain text title widths are cached per tab component
+ * paintTabArea - tabs left of the clip aren't visited in scrolling layout
  * 
  * Also removed all references to BasicGraphicsUtils.
  * 
@@ -163,6 +167,19 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 	// PENDING(api): See comment for ContainerHandler
 	private Vector htmlViews;
 
+	/**
+	 * Measured plain text title widths keyed by tab component, so that laying
+	 * out the tabs doesn't need to measure every title again if only one tab
+	 * changes. An entry is valid as long as title and font are unchanged.
+	 */
+	private Map titleWidths = new WeakHashMap();
+
+	private static class TitleWidth {
+		String title;
+		Font font;
+		int width;
+	}
+
 	private Hashtable mnemonicToIndexMap;
 
 	/**
@@ -360,6 +377,7 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 				htmlViews.removeAllElements();
 				htmlViews = null;
 			}
+			titleWidths.clear();
 		}
 		if (tabChangeListener != null) {
 			tabPane.removeChangeListener(tabChangeListener);
@@ -585,6 +603,13 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 			int start = tabRuns[i];
 			int next = tabRuns[(i == runCount - 1) ? 0 : i + 1];
 			int end = (next != 0 ? next - 1 : tabCount - 1);
+			if (runCount == 1 && clipRect != null
+					&& scrollableTabLayoutEnabled()
+					&& tabPane.getComponentOrientation().isLeftToRight()) {
+				// added -sma: a scrolling run is sorted, skip invisible tabs
+				start = firstTabInClip(tabPlacement, start, end, clipRect);
+				end = lastTabInClip(tabPlacement, start, end, clipRect);
+			}
 			for (int j = start; j <= end; j++) {
 				if (rects[j].intersects(clipRect)) {
 					paintTab(g, tabPlacement, rects, j, iconRect, textRect);
@@ -602,6 +627,51 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 		}
 	}
 
+	/*
+	 * Returns the index of the first tab of the sorted run from start to end
+	 * whose bounds reach into the clip rectangle, using a binary search so
+	 * that painting a few visible tabs doesn't iterate thousands of hidden
+	 * ones. added -sma
+	 */
+	private int firstTabInClip(int tabPlacement, int start, int end,
+			Rectangle clipRect) {
+		boolean vertical = tabPlacement == LEFT || tabPlacement == RIGHT;
+		int clip = vertical ? clipRect.y : clipRect.x;
+		int low = start, high = end;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			Rectangle r = rects[mid];
+			if ((vertical ? r.y + r.height : r.x + r.width) <= clip) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/*
+	 * Returns the index of the last tab of the sorted run from start to end
+	 * whose bounds start before the end of the clip rectangle. added -sma
+	 */
+	private int lastTabInClip(int tabPlacement, int start, int end,
+			Rectangle clipRect) {
+		boolean vertical = tabPlacement == LEFT || tabPlacement == RIGHT;
+		int clip = vertical ? clipRect.y + clipRect.height : clipRect.x
+				+ clipRect.width;
+		int low = start, high = end;
+		while (low < high) {
+			int mid = (low + high + 1) >>> 1;
+			Rectangle r = rects[mid];
+			if ((vertical ? r.y : r.x) < clip) {
+				low = mid;
+			} else {
+				high = mid - 1;
+			}
+		}
+		return low;
+	}
+
 	protected void paintTab(Graphics g, int tabPlacement, Rectangle[] rects,
 			int tabIndex, Rectangle iconRect, Rectangle textRect) {
 		Rectangle tabRect = rects[tabIndex];
@@ -1521,13 +1591,36 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 			width += (int) v.getPreferredSpan(View.X_AXIS);
 		} else {
 			// plain text
-			String title = tabPane.getTitleAt(tabIndex);
-			width += SwingUtilities.computeStringWidth(metrics, title);
+			width += getTitleWidth(tabIndex, metrics);
 		}
 
 		return width;
 	}
 
+	/**
+	 * Returns the width of the plain text title of the specified tab. The width
+	 * is measured only if the tab is new or its title or font did change.
+	 */
+	protected int getTitleWidth(int tabIndex, FontMetrics metrics) {
+		String title = tabPane.getTitleAt(tabIndex);
+		Component c = tabPane.getComponentAt(tabIndex);
+		if (c == null) {
+			return SwingUtilities.computeStringWidth(metrics, title);
+		}
+		TitleWidth tw = (TitleWidth) titleWidths.get(c);
+		if (tw == null) {
+			titleWidths.put(c, tw = new TitleWidth());
+		} else if (tw.font == metrics.getFont()
+				&& (tw.title == title || tw.title != null
+						&& tw.title.equals(title))) {
+			return tw.width;
+		}
+		tw.title = title;
+		tw.font = metrics.getFont();
+		tw.width = SwingUtilities.computeStringWidth(metrics, title);
+		return tw.width;
+	}
+
 	protected int calculateMaxTabWidth(int tabPlacement) {
 		FontMetrics metrics = getFontMetrics();
 		int tabCount = tabPane.getTabCount();
@@ -3222,6 +3315,10 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 			} else if (name.equals("indexForTitle")) {
 				int index = ((Integer) e.getNewValue()).intValue();
 				String title = tabPane.getTitleAt(index);
+				Component c = tabPane.getComponentAt(index);
+				if (c != null) {
+					titleWidths.remove(c);
+				}
 				if (BasicHTML.isHTMLString(title)) {
 					if (htmlViews == null) { // Initialize vector
 						htmlViews = createHTMLVector();
@@ -3424,6 +3521,7 @@ public class BasicClosableTabbedPaneUI extends TabbedPaneUI implements
 			if (child instanceof UIResource) {
 				return;
 			}
+			titleWidths.remove(child);
 
 			// NOTE 4/15/2002 (joutwate):
 			// This fix is implemented using client properties since there is
@@ -12,6 +12,7 @@ import javax.swing.plaf.ComponentUI;
  * 
  * createUI - return an instance of the new class
  * Replaced XPStyle with a new public accessible implementation 
+ * Tab skins are blitted from images cached by XPStyle.Skin
  * 
  * TODO: add mouse over effect for tabs on XP
  * 
@@ -25,6 +26,11 @@ public class WindowsClosableTabbedPaneUI extends BasicClosableTabbedPaneUI {
 		return new WindowsClosableTabbedPaneUI();// sma
 	}
 
+	/**
+	 * The tab skin, looked up once per UI instance.
+	 */
+	private XPStyle.Skin tabSkin;
+
 	protected void paintTabBackground(Graphics g, int tabPlacement,
 			int tabIndex, int x, int y, int w, int h, boolean isSelected) {
 		if (XPStyle.getXP() == null) {
@@ -37,7 +43,10 @@ public class WindowsClosableTabbedPaneUI extends BasicClosableTabbedPaneUI {
 			int x, int y, int w, int h, boolean isSelected) {
 		XPStyle xp = XPStyle.getXP();
 		if (xp != null) {
-			XPStyle.Skin skin = xp.getSkin("tab.tabitem");
+			if (tabSkin == null) {
+				tabSkin = xp.getSkin("tab.tabitem");
+			}
+			XPStyle.Skin skin = tabSkin;
 
 			int rotate = 0;
 			int tx = 0;
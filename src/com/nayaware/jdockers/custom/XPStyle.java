@@ -1,14 +1,20 @@
 package com.nayaware.jdockers.custom;
 
 import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 
+import javax.swing.UIManager;
+
 /**
  * Simulated XP Style window decoration
  * 
@@ -51,11 +57,21 @@ public class XPStyle {
 		return instance;
 	}
 
+	/**
+	 * Maximum number of pre-rendered images kept per skin.
+	 */
+	static final int MAX_CACHED_IMAGES = 32;
+
 	private Object style;
 	private Method getSkinMethod;
 	private Method paintSkin2Method;
 	private Method paintSkin4Method;
 
+	/**
+	 * Skins already looked up, keyed by category.
+	 */
+	private Map skins = new HashMap();
+
 	private XPStyle(Object style) throws Exception {
 		// we found the class and got the XPStyle object. Now make some more
 		// methods accessible.
@@ -73,14 +89,52 @@ public class XPStyle {
 				new Class[] { Graphics.class, Integer.TYPE, Integer.TYPE,
 						Integer.TYPE, Integer.TYPE, Integer.TYPE });
 		paintSkin4Method.setAccessible(true);
+
+		// the skins and their images depend on the current theme, so forget
+		// them if the look and feel changes
+		UIManager.addPropertyChangeListener(new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent evt) {
+				if ("lookAndFeel".equals(evt.getPropertyName())) {
+					synchronized (skins) {
+						skins.clear();
+					}
+				}
+			}
+		});
 	}
 
+	/**
+	 * Returns the skin for the specified category. Skins are looked up only
+	 * once per category and then reused.
+	 */
 	public Skin getSkin(String category) {
-		try {
-			return new Skin(getSkinMethod.invoke(style,
-					new Object[] { category }));
-		} catch (Exception e) {
-			throw new Error(e);
+		synchronized (skins) {
+			Skin skin = (Skin) skins.get(category);
+			if (skin == null) {
+				try {
+					skin = new Skin(getSkinMethod.invoke(style,
+							new Object[] { category }));
+				} catch (Exception e) {
+					throw new Error(e);
+				}
+				skins.put(category, skin);
+			}
+			return skin;
+		}
+	}
+
+	/**
+	 * A pre-rendered image of a skin in one size and state.
+	 */
+	private static class SkinImage {
+		final int dw, dh, index;
+		final BufferedImage image;
+
+		SkinImage(int dw, int dh, int index, BufferedImage image) {
+			this.dw = dw;
+			this.dh = dh;
+			this.index = index;
+			this.image = image;
 		}
 	}
 
@@ -88,28 +142,76 @@ public class XPStyle {
 
 		private Object skin;
 
+		/**
+		 * Pre-rendered images of this skin, the most recently used first. The
+		 * array is searched linearly, so that a cache hit doesn't allocate a
+		 * key; the last image is dropped if there are too many.
+		 */
+		private SkinImage[] images = new SkinImage[MAX_CACHED_IMAGES];
+
+		private int imageCount;
+
 		private Skin(Object skin) {
 			this.skin = skin;
 		}
 
 		public void paintSkin(Graphics g, int dx, int dy, int index) {
 			try {
-				paintSkin4Method.invoke(skin, new Object[] { g,
-						new Integer(dx), new Integer(dy), new Integer(index) });
+				paintSkin2Method.invoke(skin, new Object[] { g,
+						Integer.valueOf(dx), Integer.valueOf(dy),
+						Integer.valueOf(index) });
 			} catch (Exception e) {
 				throw new Error(e);
 			}
 		}
 
+		/**
+		 * Paints the skin scaled to the specified size. The skin is rendered
+		 * only once per size and state into an image which is blitted
+		 * afterwards.
+		 */
 		public void paintSkin(Graphics g, int dx, int dy, int dw, int dh,
 				int index) {
+			if (dw <= 0 || dh <= 0) {
+				return;
+			}
+			g.drawImage(getImage(dw, dh, index), dx, dy, null);
+		}
+
+		/**
+		 * Returns an image of the skin in the specified size and state,
+		 * rendering it if necessary.
+		 */
+		BufferedImage getImage(int dw, int dh, int index) {
+			for (int i = 0; i < imageCount; i++) {
+				SkinImage cached = images[i];
+				if (cached.dw == dw && cached.dh == dh
+						&& cached.index == index) {
+					// move it to the front
+					System.arraycopy(images, 0, images, 1, i);
+					images[0] = cached;
+					return cached.image;
+				}
+			}
+			BufferedImage image = new BufferedImage(dw, dh,
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics ig = image.getGraphics();
 			try {
-				paintSkin4Method.invoke(skin, new Object[] { g,
-						new Integer(dx), new Integer(dy), new Integer(dw),
-						new Integer(dh), new Integer(index) });
+				paintSkin4Method.invoke(skin, new Object[] { ig,
+						Integer.valueOf(0), Integer.valueOf(0),
+						Integer.valueOf(dw), Integer.valueOf(dh),
+						Integer.valueOf(index) });
 			} catch (Exception e) {
 				throw new Error(e);
+			} finally {
+				ig.dispose();
+			}
+			if (imageCount < images.length) {
+				imageCount++;
 			}
+			System.arraycopy(images, 0, images, 1, imageCount - 1);
+			images[0] = new SkinImage(dw, dh, index, image);
+			return image;
 		}
 	}
 
@@ -20,6 +20,8 @@ import javax.swing.RootPaneContainer;
 import javax.swing.SwingUtilities;
 import javax.swing.event.MouseInputAdapter;
 
+import com.nayaware.jdockers.LayoutEventRecorder;
+
 /**
  * A support class to implement dragging and dropping <code>DnDPane</code>s.
  * Needs to work on a DnDPanel to display drop zones. This class combines simple
@@ -33,9 +35,10 @@ class DnDSupport extends MouseInputAdapter {
 
 	/**
 	 * This class can move four <code>Window</code> over the screen as if they
-	 * were a yellow drag frame. Used to implement dragging of floating windows.
+	 * were a yellow drag frame. Used to implement dragging of floating windows
+	 * and the outline resizing of Floating Frames.
 	 */
-	private static class DnDDragIndicator {
+	static class DnDDragIndicator {
 
 		static final int BORDER_SIZE = 3;
 
@@ -90,15 +93,25 @@ class DnDSupport extends MouseInputAdapter {
 
 	/**
 	 * List of drag cursors used to illustrate the different DnD operations.
+	 * Created with the first drag, see {@link #getCursors()}.
 	 */
-	private static final Cursor[] cursors = new Cursor[] {
-			makeCursor("dz0", new Point(6, 6)),
-			makeCursor("dz1", new Point(6, 1)),
-			makeCursor("dz2", new Point(1, 6)),
-			makeCursor("dz3", new Point(6, 11)),
-			makeCursor("dz4", new Point(11, 6)),
-			makeCursor("dz5", new Point(6, 6)),
-			Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR) };
+	private static Cursor[] cursors;
+
+	/**
+	 * Returns the drag cursors, creating them on first use.
+	 */
+	private static synchronized Cursor[] getCursors() {
+		if (cursors == null) {
+			cursors = new Cursor[] { makeCursor("dz0", new Point(6, 6)),
+					makeCursor("dz1", new Point(6, 1)),
+					makeCursor("dz2", new Point(1, 6)),
+					makeCursor("dz3", new Point(6, 11)),
+					makeCursor("dz4", new Point(11, 6)),
+					makeCursor("dz5", new Point(6, 6)),
+					Cursor.getPredefinedCursor(Cursor.DEFAULT_CURSOR) };
+		}
+		return cursors;
+	}
 
 	/**
 	 * Helper method to create a custom cursor from a PNG image.
@@ -166,6 +179,13 @@ class DnDSupport extends MouseInputAdapter {
 
 	private DnDSupport target;
 
+	// the drag gesture in progress, for the event recorder
+	private long gestureStart;
+
+	private int gestureEvents;
+
+	private int gestureLookups;
+
 	public void mousePressed(MouseEvent e) {
 		if (e.getButton() == MouseEvent.BUTTON1 && e.getClickCount() == 1) {
 			origin = e.getPoint();
@@ -187,6 +207,13 @@ class DnDSupport extends MouseInputAdapter {
 
 			rootPaneContainer.getGlassPane().setVisible(false);
 			rootPaneContainer = null;
+
+			LayoutEventRecorder recorder = ((RPane) panel).getLayoutPane()
+					.recorder;
+			if (recorder != null) {
+				recorder.dragGestureEnded(gestureStart, System.nanoTime()
+						- gestureStart, gestureEvents, gestureLookups);
+			}
 		}
 		dndState = 0;
 	}
@@ -244,6 +271,9 @@ class DnDSupport extends MouseInputAdapter {
 
 		// drag gesture was recognized
 		dndState = 2;
+		gestureStart = System.nanoTime();
+		gestureEvents = 0;
+		gestureLookups = 0;
 
 		rootPaneContainer = (RootPaneContainer) SwingUtilities
 				.getWindowAncestor(panel);
@@ -281,6 +311,7 @@ class DnDSupport extends MouseInputAdapter {
 	 * to set the cursor and/or move the DnDDragIndicator.
 	 */
 	void doDnD(MouseEvent e) {
+		gestureEvents++;
 		// emulate DropTargetListener
 		DnDSupport dt = getDropTarget(e);
 		if (dt != target) {
@@ -311,6 +342,7 @@ class DnDSupport extends MouseInputAdapter {
 				((RPane) panel).getLayoutPane().floatingWindows.values());
 		for (Iterator i = w.iterator(); i.hasNext();) {
 			RFloatingFrame ff = (RFloatingFrame) i.next();
+			gestureLookups++;
 			Component c = ff.findComponentAt(SwingUtilities.convertPoint(
 					e.getComponent(), e.getPoint(), ff));
 			while (c != null) {
@@ -329,6 +361,7 @@ class DnDSupport extends MouseInputAdapter {
 			container = ((JFrame) win).getContentPane();
 		}
 
+		gestureLookups++;
 		synchronized (container.getTreeLock()) {
 			Component c = container.findComponentAt(SwingUtilities
 					.convertPoint(e.getComponent(), e.getPoint(), container));
@@ -541,7 +574,7 @@ class DnDSupport extends MouseInputAdapter {
 	 */
 	private void setDropZone(int zone) {
 		panel.setDropZone(zone);
-		dragCursor = cursors[zone];
+		dragCursor = getCursors()[zone];
 	}
 
 	private boolean isDocument() {
@@ -561,40 +594,45 @@ class DnDSupport extends MouseInputAdapter {
 	 * @see DropTargetListener
 	 */
 	void doDrop(MouseEvent e) {
-		if (panel.getDropZone() == 0) {
-			if (lastSource.isDocument()) {
-				return;
-			}
-			Point pt = e.getPoint();
-			SwingUtilities.convertPointToScreen(pt, lastSource.panel);
-			RPane p = (RPane) lastSource.panel;
-			RLayoutPane layoutPane = p.getLayoutPane();
-			RDockableWindow[] windows;
-			if (lastIndex == -1) {
-				windows = ((RCombinedDockablePane) p).getWindows();
-
-				if (p instanceof RFloatingFrame.RFloatingDockablePane) {
-					SwingUtilities.getWindowAncestor(p).setLocation(pt);
+		RLatencyMonitor.begin("doDrop", panel);
+		try {
+			if (panel.getDropZone() == 0) {
+				if (lastSource.isDocument()) {
 					return;
 				}
-				for (int i = 0; i < windows.length; i++) {
-					p.getLayoutContainer().setupLayoutHint(windows[i]);
-					windows[i].setBounds(p.getAbsoluteBounds());
+				Point pt = e.getPoint();
+				SwingUtilities.convertPointToScreen(pt, lastSource.panel);
+				RPane p = (RPane) lastSource.panel;
+				RLayoutPane layoutPane = p.getLayoutPane();
+				RDockableWindow[] windows;
+				if (lastIndex == -1) {
+					windows = ((RCombinedDockablePane) p).getWindows();
+
+					if (p instanceof RFloatingFrame.RFloatingDockablePane) {
+						SwingUtilities.getWindowAncestor(p).setLocation(pt);
+						return;
+					}
+					for (int i = 0; i < windows.length; i++) {
+						p.getLayoutContainer().setupLayoutHint(windows[i]);
+						windows[i].setBounds(p.getAbsoluteBounds());
+					}
+					p.removeFromParent();
+				} else {
+					RDockableWindow w = ((RCombinedDockablePane) p)
+							.getWindow(lastIndex);
+					w.setBounds(p.getAbsoluteBounds());
+					((RCombinedDockablePane) p).removeWindow(w);
+					windows = new RDockableWindow[] { w };
+				}
+				if (windows.length > 0) {
+					layoutPane.floatWindows(windows, new Rectangle(pt,
+							windows[0].getBounds().getSize()));
 				}
-				p.removeFromParent();
 			} else {
-				RDockableWindow w = ((RCombinedDockablePane) p)
-						.getWindow(lastIndex);
-				w.setBounds(p.getAbsoluteBounds());
-				((RCombinedDockablePane) p).removeWindow(w);
-				windows = new RDockableWindow[] { w };
+				panel.drop(lastSource.panel, lastIndex);
 			}
-			if (windows.length > 0) {
-				layoutPane.floatWindows(windows, new Rectangle(pt, windows[0]
-						.getBounds().getSize()));
-			}
-		} else {
-			panel.drop(lastSource.panel, lastIndex);
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -613,7 +651,7 @@ class DnDSupport extends MouseInputAdapter {
 	 */
 	public void dragOver(Point pt) {
 		setCursor(dragCursor);
-		if (dragCursor == cursors[0]) {
+		if (dragCursor == getCursors()[0]) {
 			indicator.show(pt.x - 30, pt.y - 20, 60, 40);
 		} else {
 			indicator.hide();
@@ -0,0 +1,175 @@
+package com.nayaware.jdockers.impl;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.ImageIcon;
+import javax.swing.SwingUtilities;
+
+import com.nayaware.jdockers.AsyncLayoutManager;
+import com.nayaware.jdockers.LayoutWindow;
+
+/**
+ * This class implements the thread-safe view of a Layout Manager. Calls are
+ * queued as <code>FutureTask</code>s in a lock-free queue and drained on the
+ * event dispatch thread. A single drain is scheduled while the queue is not
+ * empty; it executes queued calls for at most one frame interval and
+ * schedules itself again if calls are left, so a burst of calls neither
+ * floods the event queue nor blocks painting. Failed calls are logged, since
+ * most callers never look at the returned future.
+ */
+class RAsyncLayoutManager implements AsyncLayoutManager, Runnable {
+
+	/**
+	 * A queued call which logs its failure.
+	 */
+	private class Call extends FutureTask {
+		Call(Callable task) {
+			super(task);
+		}
+
+		Call(Runnable task) {
+			super(task, null);
+		}
+
+		protected void done() {
+			if (isCancelled()) {
+				return;
+			}
+			try {
+				get();
+			} catch (ExecutionException e) {
+				manager.log("AsyncLayoutManager: call failed: ", e.getCause());
+			} catch (InterruptedException e) {
+				// can't happen, the call is done
+			}
+		}
+	}
+
+	private final RLayoutManager manager;
+
+	private final ConcurrentLinkedQueue queue = new ConcurrentLinkedQueue();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	RAsyncLayoutManager(RLayoutManager manager) {
+		this.manager = manager;
+	}
+
+	public Future createDockableWindow(final String name, final String title,
+			final ImageIcon icon) {
+		return submit(new Callable() {
+			public Object call() {
+				return manager.createDockableWindow(name, title, icon);
+			}
+		});
+	}
+
+	public Future createDocumentWindow(final String name, final String title,
+			final ImageIcon icon) {
+		return submit(new Callable() {
+			public Object call() {
+				return manager.createDocumentWindow(name, title, icon);
+			}
+		});
+	}
+
+	public Future findLayoutWindow(final String layoutWindowName) {
+		return submit(new Callable() {
+			public Object call() {
+				return manager.findLayoutWindow(layoutWindowName);
+			}
+		});
+	}
+
+	public Future openLayoutWindow(final LayoutWindow layoutWindow) {
+		return submit(new Runnable() {
+			public void run() {
+				manager.openLayoutWindow(layoutWindow);
+			}
+		});
+	}
+
+	public Future closeLayoutWindow(final LayoutWindow layoutWindow) {
+		return submit(new Runnable() {
+			public void run() {
+				manager.closeLayoutWindow(layoutWindow);
+			}
+		});
+	}
+
+	public Future showLayoutWindow(final LayoutWindow layoutWindow) {
+		return submit(new Runnable() {
+			public void run() {
+				manager.showLayoutWindow(layoutWindow);
+			}
+		});
+	}
+
+	public Future hideLayoutWindow(final LayoutWindow layoutWindow) {
+		return submit(new Runnable() {
+			public void run() {
+				manager.hideLayoutWindow(layoutWindow);
+			}
+		});
+	}
+
+	public Future activateLayoutWindow(final LayoutWindow layoutWindow) {
+		return submit(new Runnable() {
+			public void run() {
+				manager.activateLayoutWindow(layoutWindow);
+			}
+		});
+	}
+
+	public Future updateLayoutWindow(final LayoutWindow layoutWindow) {
+		return submit(new Runnable() {
+			public void run() {
+				manager.updateLayoutWindow(layoutWindow);
+			}
+		});
+	}
+
+	public Future submit(Callable task) {
+		if (task == null) {
+			throw new NullPointerException();
+		}
+		return enqueue(new Call(task));
+	}
+
+	private Future submit(Runnable task) {
+		return enqueue(new Call(task));
+	}
+
+	private Future enqueue(FutureTask task) {
+		queue.add(task);
+		if (scheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this);
+		}
+		return task;
+	}
+
+	/**
+	 * Drains the queue on the event dispatch thread.
+	 */
+	public void run() {
+		scheduled.set(false);
+		long deadline = System.nanoTime()
+				+ RGlobalEventListener.getFrameInterval(manager
+						.getLayoutPane()) * 1000000L;
+		FutureTask task;
+		while ((task = (FutureTask) queue.poll()) != null) {
+			task.run();
+			if (System.nanoTime() > deadline) {
+				break;
+			}
+		}
+		if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this);
+		}
+	}
+}
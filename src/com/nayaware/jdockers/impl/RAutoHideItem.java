@@ -2,15 +2,18 @@ package com.nayaware.jdockers.impl;
 
 import java.awt.Color;
 import java.awt.Dimension;
+import java.awt.Font;
 import java.awt.FontMetrics;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
 import java.awt.Insets;
+import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseMotionAdapter;
+import java.awt.image.BufferedImage;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
 
@@ -136,6 +139,7 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 
 		addMouseMotionListener(new MouseMotionAdapter() {
 			public void mouseMoved(MouseEvent e) {
+				validateItemLayout();
 				int pos = getOrientation() == RLayoutPane.HORIZONTAL ? e.getX()
 						: e.getY();
 				for (int i = 0; i < items.length; i++) {
@@ -223,11 +227,26 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 		int dimension;
 		RDockableWindow window;
 
+		/**
+		 * Width of the title in the current font, computed by
+		 * validateItemLayout().
+		 */
+		int titleWidth = -1;
+
+		/**
+		 * Cached rotated rendering of the title for vertical items and the font
+		 * and color it was rendered with.
+		 */
+		BufferedImage rotatedTitle;
+		Font rotatedFont;
+		Color rotatedColor;
+
 		Item(RDockableWindow window) {
 			this.window = window;
 			title = window.getTabName() != null ? window.getTabName() : window
 					.getTitle() != null ? window.getTitle() : "";
-			icon = window.getIcon() != null ? window.getIcon() : RSwing.pane;
+			icon = window.getIcon() != null ? RScaledIcon.getScaledIcon(window
+					.getIcon()) : RSwing.pane.getIcon();
 		}
 	}
 
@@ -237,67 +256,136 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 
 	private JTabbedPane listeningTo;
 
+	/**
+	 * <code>true</code> if the item extents and the preferred size have been
+	 * computed for the current items, selection, font and orientation.
+	 */
+	private boolean layoutValid;
+
+	/**
+	 * Font and orientation the current item layout was computed for.
+	 */
+	private Font layoutFont;
+	private int layoutOrientation;
+
+	/**
+	 * Preferred size computed by validateItemLayout().
+	 */
+	private Dimension layoutSize = new Dimension();
+
 	/**
 	 * Returns the component's preferred size (including the specified margin).
 	 */
 	public Dimension getPreferredSize() {
-		FontMetrics fm = getFontMetrics(getFont());
-		int w, h;
-		switch (getOrientation()) {
-		case RLayoutPane.HORIZONTAL:
-			w = 0;
-			h = fm.getHeight();
-			for (int i = 0; i < items.length; i++) {
-				Item item = items[i];
-				w += margin.left;
-				w += item.icon.getIconWidth();
-				if (i == selectedIndex) {
-					w += gap;
-					w += fm.stringWidth(item.title);
-				}
-				h = Math.max(h, item.icon.getIconHeight());
-				w += margin.right;
-			}
-			h += margin.top;
-			h += margin.bottom;
-			break;
+		validateItemLayout();
+		return new Dimension(layoutSize);
+	}
 
-		case RLayoutPane.VERTICAL:
-			w = fm.getHeight();
-			h = 0;
+	public void setFont(Font font) {
+		super.setFont(font);
+		layoutValid = false;
+	}
+
+	public void addNotify() {
+		super.addNotify();
+		layoutValid = false;
+	}
+
+	/**
+	 * Measures all items and computes their extents along the item's
+	 * orientation as well as the preferred size. This happens only if titles,
+	 * icons, selection, font or orientation did change since the last call so
+	 * that painting and mouse tracking can use the cached "dimension" Item
+	 * property.
+	 */
+	private void validateItemLayout() {
+		Font font = getFont();
+		int orientation = getOrientation();
+		if (layoutValid && orientation == layoutOrientation
+				&& (font == null ? layoutFont == null : font.equals(layoutFont))) {
+			return;
+		}
+		if (font == null ? layoutFont != null : !font.equals(layoutFont)) {
 			for (int i = 0; i < items.length; i++) {
-				Item item = items[i];
-				w = Math.max(w, item.icon.getIconWidth());
-				h += margin.left;
-				h += item.icon.getIconHeight();
-				if (i == selectedIndex) {
-					h += gap;
-					h += fm.stringWidth(item.title);
+				items[i].titleWidth = -1;
+				items[i].rotatedTitle = null;
+			}
+		}
+		FontMetrics fm = font != null ? getFontMetrics(font) : null;
+		int textHeight = fm != null ? fm.getHeight() : 0;
+		int extent = 0, depth = textHeight;
+		for (int i = 0; i < items.length; i++) {
+			Item item = items[i];
+			extent += margin.left;
+			if (orientation == RLayoutPane.HORIZONTAL) {
+				extent += item.icon.getIconWidth();
+				depth = Math.max(depth, item.icon.getIconHeight());
+			} else {
+				extent += item.icon.getIconHeight();
+				depth = Math.max(depth, item.icon.getIconWidth());
+			}
+			if (i == selectedIndex) {
+				if (item.titleWidth < 0) {
+					item.titleWidth = fm != null ? fm.stringWidth(item.title) : 0;
 				}
-				h += margin.right;
+				extent += gap;
+				extent += item.titleWidth;
 			}
-			w += margin.top;
-			w += margin.bottom;
-			break;
+			extent += margin.right;
+			item.dimension = extent;
+		}
+		depth += margin.top;
+		depth += margin.bottom;
+		if (orientation == RLayoutPane.HORIZONTAL) {
+			layoutSize.setSize(extent, depth);
+		} else {
+			layoutSize.setSize(depth, extent);
+		}
+		layoutFont = font;
+		layoutOrientation = orientation;
+		layoutValid = true;
+	}
 
-		default:
-			throw new Error(); // should never happen
+	/**
+	 * Returns the title of the specified item rendered rotated by 90 degrees,
+	 * rendering it only if the font or foreground color did change.
+	 */
+	private BufferedImage getRotatedTitle(Item item, FontMetrics fm) {
+		Color fg = getForeground();
+		if (item.rotatedTitle == null || !fg.equals(item.rotatedColor)
+				|| !getFont().equals(item.rotatedFont)) {
+			int w = Math.max(1, fm.getHeight());
+			int h = Math.max(1, item.titleWidth);
+			BufferedImage image = new BufferedImage(w, h,
+					BufferedImage.TYPE_INT_ARGB);
+			Graphics2D g2 = image.createGraphics();
+			g2.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g2.setColor(fg);
+			g2.setFont(getFont());
+			g2.rotate(PI2);
+			g2.drawString(item.title, 0, -fm.getDescent());
+			g2.dispose();
+			item.rotatedTitle = image;
+			item.rotatedFont = getFont();
+			item.rotatedColor = fg;
 		}
-		return new Dimension(w, h);
+		return item.rotatedTitle;
 	}
 
 	/**
-	 * Paints the component. Notice that this sets the "dimension" Item property
-	 * as a side effect.
+	 * Paints the component using the item layout computed by
+	 * validateItemLayout(). Vertical titles are blitted from cached images.
 	 */
 	protected void paintComponent(Graphics g) {
+		validateItemLayout();
 		if (isOpaque()) {
 			g.setColor(getBackground());
 			g.fillRect(0, 0, getWidth(), getHeight());
 		}
 		Color highlight = getBackground().brighter();
 		Color shadow = getBackground().darker();
-		switch (getOrientation()) {
+		switch (layoutOrientation) {
 		case RLayoutPane.HORIZONTAL:
 			int x = margin.left,
 			x0 = 0;
@@ -313,10 +401,8 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 					x += gap;
 					g.drawString(item.title, x, (getHeight() - fm.getHeight())
 							/ 2 + fm.getAscent());
-					x += fm.stringWidth(item.title);
 				}
-				x += margin.right;
-				items[i].dimension = x;
+				x = items[i].dimension;
 				g.setColor(highlight);
 				g.fillRect(x0, 0, x - x0 - 1, 1);
 				g.fillRect(x0, 1, 1, getHeight() - 1);
@@ -337,19 +423,12 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 						(getWidth() - item.icon.getIconWidth()) / 2, y);
 				y += item.icon.getIconHeight();
 				if (i == selectedIndex) {
-					g.setColor(getForeground());
-					g.setFont(getFont());
-					FontMetrics fm = g.getFontMetrics();
+					FontMetrics fm = getFontMetrics(getFont());
 					y += gap;
-					Graphics2D g2 = (Graphics2D) g;
-					g2.rotate(PI2);
-					g2.drawString(item.title, y, -fm.getDescent()
-							- (getWidth() - fm.getHeight()) / 2);
-					g2.rotate(-PI2);
-					y += fm.stringWidth(item.title);
+					g.drawImage(getRotatedTitle(item, fm),
+							(getWidth() - fm.getHeight()) / 2, y, null);
 				}
-				y += margin.right;
-				items[i].dimension = y;
+				y = items[i].dimension;
 				g.setColor(highlight);
 				g.fillRect(0, y0, getWidth() - 1, 1);
 				g.fillRect(0, y0 + 1, 1, y - y0 - 1);
@@ -372,6 +451,7 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 	void setIndex(int index) {
 		if (this.selectedIndex != index) {
 			this.selectedIndex = index;
+			layoutValid = false;
 			autoHidePane.setSelectedIndex(index);
 			refresh();
 		}
@@ -382,9 +462,20 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 	 * refresh the item. We could probably be more clever here but why?
 	 */
 	public void propertyChange(PropertyChangeEvent evt) {
-		rebuildItems();
+		((RLayoutWindow) evt.getSource()).getLayoutManager()
+				.getUpdateCoalescer().afterFlush(rebuild);
 	}
 
+	/*
+	 * Rebuilds the items once even if several of our windows changed in one
+	 * flush of the update coalescer.
+	 */
+	private final Runnable rebuild = new Runnable() {
+		public void run() {
+			rebuildItems();
+		}
+	};
+
 	/*
 	 * The Auto Hide Pane's TabbedPane has changed so synchronize the item's
 	 * index. This, btw. triggers this event again and again sets the index but
@@ -412,6 +503,7 @@ public class RAutoHideItem extends JComponent implements ChangeListener,
 			items[i].window.addPropertyChangeListener(this);
 		}
 		selectedIndex = Math.min(selectedIndex, items.length - 1);
+		layoutValid = false;
 		listeningTo = autoHidePane.getTabbedPane();
 		if (listeningTo != null) {
 			listeningTo.addChangeListener(this);
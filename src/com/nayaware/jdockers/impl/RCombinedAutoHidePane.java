@@ -26,8 +26,8 @@ public class RCombinedAutoHidePane extends RCombinedDockablePane {
 	RCombinedAutoHidePane(RAutoHideItem item) {
 		this.item = item;
 
-		pin.setIcon(RSwing.pin2);
-		pin.setPressedIcon(RSwing.pin1);
+		pin.setIcon(RSwing.pin2.getIcon());
+		pin.setPressedIcon(RSwing.pin1.getIcon());
 		autoHideAction.putValue(Action.NAME, "Dock");
 
 		setOpaque(true); // otherwise GTK look doesn't look right
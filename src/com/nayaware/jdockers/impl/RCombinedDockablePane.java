@@ -8,6 +8,8 @@ import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.HashSet;
+import java.util.Set;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -16,6 +18,7 @@ import javax.swing.JMenu;
 import javax.swing.JMenuItem;
 import javax.swing.JPopupMenu;
 import javax.swing.JTabbedPane;
+import javax.swing.UIManager;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
@@ -47,12 +50,26 @@ public class RCombinedDockablePane extends RTitledPane implements
 	 */
 	protected JClosableTabbedPane tabbedPane;
 
+	/**
+	 * The windows of this pane, so that membership can be tested without
+	 * searching the tabs. Windows don't override <code>equals()</code> so
+	 * this is an identity set.
+	 */
+	private Set windowSet = new HashSet();
+
+	/*
+	 * The tab context menu and its actions are shared by all panes. Each action
+	 * finds the pane it acts on through the source of its event.
+	 */
+
 	/**
 	 * Action to hide the currently selected window.
 	 */
-	Action hideTabAction = new AbstractAction("Hide") {
+	static final Action hideTabAction = new AbstractAction("Hide") {
 		public void actionPerformed(ActionEvent e) {
-			RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			RDockableWindow window = pane != null ? pane.getSelectedWindow()
+					: null;
 			if (window != null) {
 				window.getLayoutManager().hideLayoutWindow(window);
 			}
@@ -62,12 +79,14 @@ public class RCombinedDockablePane extends RTitledPane implements
 	/**
 	 * Action to float the currently selected window.
 	 */
-	Action floatTabAction = new AbstractAction("Floating") {
+	static final Action floatTabAction = new AbstractAction("Floating") {
 		public void actionPerformed(ActionEvent e) {
-			RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			RDockableWindow window = pane != null ? pane.getSelectedWindow()
+					: null;
 			if (window != null) {
 				if (window.getBounds() == null) {
-					window.setBounds(getAbsoluteBounds());
+					window.setBounds(pane.getAbsoluteBounds());
 				}
 				window.getLayoutManager().floatDockableWindow(window);
 			}
@@ -77,12 +96,38 @@ public class RCombinedDockablePane extends RTitledPane implements
 	/**
 	 * Action to autohide the currently selected window.
 	 */
-	Action autoHideTabAction = new AbstractAction("Auto Hide") {
+	static final Action autoHideTabAction = new AbstractAction("Auto Hide") {
 		public void actionPerformed(ActionEvent e) {
-			RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			RDockableWindow window = pane != null ? pane.getSelectedWindow()
+					: null;
 			if (window != null) {
-				getLayoutPane().requestAutoHide(RCombinedDockablePane.this,
-						window);
+				pane.getLayoutPane().requestAutoHide(pane, window);
+			}
+		}
+	};
+
+	/**
+	 * Action to float the whole pane, the same as the title bar's float action.
+	 */
+	static final Action floatPaneAction = new AbstractAction("Floating") {
+		public void actionPerformed(ActionEvent e) {
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane instanceof RCombinedDockablePane) {
+				((RCombinedDockablePane) pane).floatRequest();
+			}
+		}
+	};
+
+	/**
+	 * Action to auto-hide the whole pane, the same as the title bar's pin
+	 * action.
+	 */
+	static final Action autoHidePaneAction = new AbstractAction("Auto Hide") {
+		public void actionPerformed(ActionEvent e) {
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane instanceof RCombinedDockablePane) {
+				((RCombinedDockablePane) pane).pinRequest();
 			}
 		}
 	};
@@ -91,9 +136,17 @@ public class RCombinedDockablePane extends RTitledPane implements
 	 * Action to activate the window whose index is encoded in the ActionEven's
 	 * command string.
 	 */
-	Action selectAction = new AbstractAction() {
+	static final Action selectAction = new AbstractAction() {
 		public void actionPerformed(ActionEvent e) {
-			tabbedPane.setSelectedIndex(Integer.parseInt(e.getActionCommand()));
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane instanceof RCombinedDockablePane) {
+				JClosableTabbedPane tabbedPane;
+				tabbedPane = ((RCombinedDockablePane) pane).tabbedPane;
+				int index = Integer.parseInt(e.getActionCommand());
+				if (tabbedPane != null && index < tabbedPane.getTabCount()) {
+					tabbedPane.setSelectedIndex(index);
+				}
+			}
 		}
 	};
 
@@ -101,22 +154,78 @@ public class RCombinedDockablePane extends RTitledPane implements
 	 * Action to split the currently selected window from the container, using
 	 * the direction encoded in the ActionEvent's command string.
 	 */
-	Action splitAction = new AbstractAction() {
+	static final Action splitAction = new AbstractAction() {
 		public void actionPerformed(ActionEvent e) {
-			if (getWindowCount() > 1) {
-				RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane != null && pane.getWindowCount() > 1) {
+				RDockableWindow window = pane.getSelectedWindow();
 				if (window != null) {
-					removeWindow(window);
-					RCombinedDockablePane pane = new RCombinedDockablePane(
+					pane.removeWindow(window);
+					RCombinedDockablePane newPane = new RCombinedDockablePane(
 							window);
-					getParentTiledContainer().dockPaneAt(
-							Integer.parseInt(e.getActionCommand()), pane,
-							RCombinedDockablePane.this, 0.5);
+					pane.getParentTiledContainer().dockPaneAt(
+							Integer.parseInt(e.getActionCommand()), newPane,
+							pane, 0.5);
 				}
 			}
 		}
 	};
 
+	/**
+	 * The shared tab context menu, created on first use.
+	 */
+	private static RContextMenu tabMenu;
+
+	private static JMenuItem floatTabItem, autoHideTabItem, floatPaneItem,
+			autoHidePaneItem;
+
+	private static JMenu windowsMenu, splitMenu;
+
+	static {
+		// the shared menu isn't part of a component tree, so it wouldn't get
+		// the new UI delegates; drop it and create it again on next use
+		UIManager.addPropertyChangeListener(new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent evt) {
+				if ("lookAndFeel".equals(evt.getPropertyName())) {
+					tabMenu = null;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the shared tab context menu updated for the specified pane and
+	 * tab index (<code>-1</code> if no tab was clicked).
+	 */
+	static RContextMenu getTabMenu(RCombinedDockablePane pane, int index) {
+		if (tabMenu == null) {
+			tabMenu = new RContextMenu();
+			tabMenu.add(hideTabAction);
+			floatTabItem = tabMenu.add(floatTabAction);
+			autoHideTabItem = tabMenu.add(autoHideTabAction);
+			floatPaneItem = tabMenu.add(floatPaneAction);
+			autoHidePaneItem = tabMenu.add(autoHidePaneAction);
+			tabMenu.addSeparator();
+			windowsMenu = new JMenu("Select Window");
+			tabMenu.add(windowsMenu);
+			splitMenu = RContextMenu.createSplitMenu(splitAction);
+			tabMenu.add(splitMenu);
+		}
+		boolean floating = pane.ff != null;
+		int count = pane.getWindowCount();
+		floatTabItem.setVisible(index != -1 && !floating);
+		autoHideTabItem.setVisible(index != -1 && !floating);
+		floatPaneItem.setVisible(index == -1);
+		autoHidePaneItem.setVisible(index == -1 && !floating);
+		// the pane's own actions may be renamed, e.g. to "Dock"
+		floatPaneItem.setText((String) pane.floatAction.getValue(Action.NAME));
+		autoHidePaneItem.setText((String) pane.autoHideAction
+				.getValue(Action.NAME));
+		RContextMenu.updateWindowItems(windowsMenu, pane, selectAction);
+		splitMenu.setVisible(index != -1 && count > 1 && !floating);
+		return tabMenu;
+	}
+
 	// constructors
 	// ------------------------------------------------------------------------------
 
@@ -217,6 +326,9 @@ public class RCombinedDockablePane extends RTitledPane implements
 	 * the selected index of the TabbedPane acordingly.
 	 */
 	void activateWindow(RDockableWindow window) {
+		if (!windowSet.contains(window)) {
+			return;
+		}
 		if (tabbedPane != null) {
 			int index = tabbedPane
 					.indexOfComponent(window.getWindowComponent());
@@ -235,14 +347,8 @@ public class RCombinedDockablePane extends RTitledPane implements
 	 * This might cause the whole pane to go away.
 	 */
 	void deactivateWindow(RDockableWindow window) {
-		if (isActive()) {
-			if (tabbedPane != null) {
-				if (tabbedPane.indexOfComponent(window.getWindowComponent()) != -1) {
-					setActive(false);
-				}
-			} else if (firstWindow == window) {
-				setActive(false);
-			}
+		if (isActive() && windowSet.contains(window)) {
+			setActive(false);
 		}
 	}
 
@@ -284,6 +390,7 @@ public class RCombinedDockablePane extends RTitledPane implements
 			tabbedPane.addChangeListener(this);
 		}
 		window.addPropertyChangeListener(this);
+		windowSet.add(window);
 		markWindow(window);
 	}
 
@@ -329,54 +436,8 @@ public class RCombinedDockablePane extends RTitledPane implements
 				if (e.isPopupTrigger()) {
 					int index = DnDSupport.indexAtLocation(tabbedPane,
 							e.getX(), e.getY());
-					JPopupMenu menu = new JPopupMenu();
-					if (index != -1) {
-						menu.add(hideTabAction);
-						if (ff == null) {
-							menu.add(floatTabAction);
-							menu.add(autoHideTabAction);
-						}
-					} else {
-						menu.add(hideTabAction);
-						menu.add(floatAction);
-						if (ff == null) {
-							menu.add(autoHideAction);
-						}
-					}
-					int count = getWindowCount();
-					JMenu windows = new JMenu("Select Window");
-					for (int i = 0; i < count; i++) {
-						JMenuItem item = new JMenuItem();
-						item.setText(getWindow(i).getTitle());
-						item.setActionCommand(String.valueOf(i));
-						item.addActionListener(selectAction);
-						windows.add(item);
-					}
-					menu.addSeparator();
-					menu.add(windows);
-
-					if (index != -1 && count > 1 && ff == null) {
-						JMenu splits = new JMenu("Split");
-						JMenuItem item;
-						item = new JMenuItem("Top");
-						item.setActionCommand("0");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						item = new JMenuItem("Left");
-						item.setActionCommand("1");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						item = new JMenuItem("Bottom");
-						item.setActionCommand("2");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						item = new JMenuItem("Right");
-						item.setActionCommand("3");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						menu.add(splits);
-					}
-
+					JPopupMenu menu = getTabMenu(RCombinedDockablePane.this,
+							index);
 					menu.show(tabbedPane, e.getX(), e.getY());
 				}
 			}
@@ -390,11 +451,14 @@ public class RCombinedDockablePane extends RTitledPane implements
 	 * unknown.
 	 */
 	void removeWindow(RDockableWindow window) {
+		if (!windowSet.remove(window)) {
+			return;
+		}
+		window.removePropertyChangeListener(this);
 		if (tabbedPane != null) {
 			int index = tabbedPane
 					.indexOfComponent(window.getWindowComponent());
 			if (index != -1) {
-				window.removePropertyChangeListener(this);
 				tabbedPane.removeChangeListener(this);
 				tabbedPane.remove(index);
 				fireChangedNoActivate();
@@ -407,12 +471,13 @@ public class RCombinedDockablePane extends RTitledPane implements
 				if (tabbedPane.getTabCount() == 1) {
 					window = modelOf(tabbedPane.getComponentAt(0));
 					destroyTabbedPane();
+					// addWindow() registers the listener again
+					window.removePropertyChangeListener(this);
 					addWindow(window);
 				}
 			}
 		} else if (firstWindow != null) {
 			if (window == firstWindow) {
-				window.removePropertyChangeListener(this);
 				remove(window.getWindowComponent());
 				firstWindow = null;
 
@@ -562,14 +627,7 @@ public class RCombinedDockablePane extends RTitledPane implements
 	}
 
 	RWindowPane findWindowPane(RDockableWindow window) {
-		if (tabbedPane != null) {
-			if (tabbedPane.indexOfComponent(window.getWindowComponent()) != -1) {
-				return this;
-			}
-		} else if (firstWindow == window) {
-			return this;
-		}
-		return null;
+		return windowSet.contains(window) ? this : null;
 	}
 
 	/* See DnDPanel */
@@ -0,0 +1,267 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.EventQueue;
+import java.awt.Toolkit;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.nayaware.jdockers.ContentProvider;
+import com.nayaware.jdockers.DocumentWindow;
+import com.nayaware.jdockers.LayoutManagerException;
+import com.nayaware.jdockers.PrefetchPolicy;
+
+/**
+ * This class creates the contents of Document Windows with a
+ * <code>ContentProvider</code>. When a document tab is selected, the windows
+ * chosen by the prefetch policy are loaded by a background thread, one at a
+ * time and in the order of the policy. Loaded contents wait until the event
+ * dispatch thread has no pending events, then their components are created
+ * one per idle check. A window selected before that takes the prefetched
+ * content, waiting for it only if it is being loaded; a prefetch still queued
+ * behind others is cancelled and the content loaded at once. All methods
+ * except the loading must be called on the event dispatch thread.
+ */
+class RContentPrefetcher implements ActionListener {
+
+	/**
+	 * Time in milliseconds between two idle checks.
+	 */
+	static final int IDLE_DELAY = 50;
+
+	/**
+	 * Marks a prefetched window whose component was already created.
+	 */
+	private static final Object CREATED = new Object();
+
+	/**
+	 * Loads the content of a window in the background.
+	 */
+	private class Prefetch extends FutureTask {
+		final RDocumentWindow window;
+
+		Prefetch(final RDocumentWindow window, final ContentProvider provider) {
+			super(new Callable() {
+				public Object call() throws Exception {
+					return provider.loadContent(window);
+				}
+			});
+			this.window = window;
+		}
+
+		protected void done() {
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					loaded(Prefetch.this);
+				}
+			});
+		}
+	}
+
+	private final RLayoutMetrics metrics;
+
+	private PrefetchPolicy policy = new RPrefetchPolicy(2, 1);
+
+	/**
+	 * Maps each prefetched window to its Prefetch or to CREATED, until the
+	 * window is selected or closed.
+	 */
+	private final Map prefetched = new HashMap();
+
+	/**
+	 * Prefetches whose content is loaded, waiting for an idle event dispatch
+	 * thread.
+	 */
+	private final LinkedList loaded = new LinkedList();
+
+	private ThreadPoolExecutor executor;
+
+	private Timer idleTimer;
+
+	RContentPrefetcher(RLayoutMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	void setPolicy(PrefetchPolicy policy) {
+		this.policy = policy;
+	}
+
+	PrefetchPolicy getPolicy() {
+		return policy;
+	}
+
+	// prefetching
+	// -------------------------------------------------------------------------------
+
+	/**
+	 * Starts prefetching the windows which the policy expects to be selected
+	 * after the specified window.
+	 */
+	void selected(RDocumentWindow selected, RDocumentWindow[] windows,
+			RDocumentWindow[] recentWindows) {
+		if (policy == null) {
+			return;
+		}
+		DocumentWindow[] candidates = policy.getPrefetchCandidates(selected,
+				windows, recentWindows);
+		for (int i = 0; i < candidates.length; i++) {
+			RDocumentWindow w = (RDocumentWindow) candidates[i];
+			if (w != selected && needsContent(w)
+					&& !prefetched.containsKey(w)) {
+				Prefetch p = new Prefetch(w, w.getContentProvider());
+				prefetched.put(w, p);
+				metrics.prefetches.incrementAndGet();
+				getExecutor().execute(p);
+			}
+		}
+	}
+
+	private ThreadPoolExecutor getExecutor() {
+		if (executor == null) {
+			executor = new ThreadPoolExecutor(1, 1, 10, TimeUnit.SECONDS,
+					new LinkedBlockingQueue(), new ThreadFactory() {
+						public Thread newThread(Runnable r) {
+							Thread t = new Thread(r, "winsys prefetch");
+							t.setDaemon(true);
+							t.setPriority(Thread.MIN_PRIORITY);
+							return t;
+						}
+					});
+			executor.allowCoreThreadTimeOut(true);
+		}
+		return executor;
+	}
+
+	private void loaded(Prefetch p) {
+		if (prefetched.get(p.window) == p && !p.isCancelled()) {
+			loaded.add(p);
+			if (idleTimer == null) {
+				idleTimer = new Timer(IDLE_DELAY, this);
+				idleTimer.setRepeats(false);
+			}
+			if (!idleTimer.isRunning()) {
+				idleTimer.start();
+			}
+		}
+	}
+
+	/**
+	 * Creates the component of the next loaded content if there are no
+	 * pending events, otherwise checks again later.
+	 */
+	public void actionPerformed(ActionEvent e) {
+		EventQueue queue = Toolkit.getDefaultToolkit().getSystemEventQueue();
+		if (queue.peekEvent() == null && !loaded.isEmpty()) {
+			Prefetch p = (Prefetch) loaded.removeFirst();
+			if (prefetched.get(p.window) == p && needsContent(p.window)) {
+				try {
+					createComponent(p.window, p.get());
+					prefetched.put(p.window, CREATED);
+				} catch (Exception ex) {
+					// leave it to ensureContent() to try again and report
+					prefetched.remove(p.window);
+					metrics.wastedPrefetches.incrementAndGet();
+				}
+			}
+		}
+		if (!loaded.isEmpty()) {
+			idleTimer.restart();
+		}
+	}
+
+	// contents
+	// ----------------------------------------------------------------------------------
+
+	/**
+	 * Returns <code>true</code> if the window has a content provider but no
+	 * component.
+	 */
+	static boolean needsContent(RDocumentWindow window) {
+		return window.getContentProvider() != null
+				&& window.getActiveComponent() == null;
+	}
+
+	/**
+	 * Makes sure that a window which is about to be shown has its content,
+	 * taking a prefetched content or loading it now. A prefetch which hasn't
+	 * started is not waited for, since it would have to wait for the
+	 * prefetches queued before it. The content of a failed prefetch is loaded
+	 * again.
+	 *
+	 * @throws LayoutManagerException
+	 *             if the content provider failed
+	 */
+	void ensureContent(RDocumentWindow window) {
+		Object entry = prefetched.remove(window);
+		if (!needsContent(window)) {
+			if (entry == CREATED) {
+				metrics.prefetchHits.incrementAndGet();
+			} else if (entry != null) {
+				((Prefetch) entry).cancel(false);
+				metrics.wastedPrefetches.incrementAndGet();
+			}
+			return;
+		}
+		try {
+			Object content = null;
+			Prefetch p = entry instanceof Prefetch ? (Prefetch) entry : null;
+			if (p != null && !p.isDone() && executor.remove(p)) {
+				p.cancel(false);
+				metrics.wastedPrefetches.incrementAndGet();
+				p = null;
+			}
+			if (p != null) {
+				try {
+					content = p.get();
+					metrics.prefetchHits.incrementAndGet();
+				} catch (ExecutionException e) {
+					// load it again below, the failure may have been temporary
+					metrics.wastedPrefetches.incrementAndGet();
+					p = null;
+				}
+			}
+			if (p == null) {
+				metrics.prefetchMisses.incrementAndGet();
+				content = window.getContentProvider().loadContent(window);
+			}
+			createComponent(window, content);
+		} catch (RuntimeException e) {
+			throw e;
+		} catch (Exception e) {
+			throw new LayoutManagerException(e);
+		}
+	}
+
+	private static void createComponent(RDocumentWindow window,
+			Object content) {
+		JComponent comp = window.getContentProvider().createComponent(window,
+				content);
+		window.addComponent(comp, window.getName());
+	}
+
+	/**
+	 * Forgets a closed window, counting its prefetch as wasted.
+	 */
+	void windowClosed(RLayoutWindow window) {
+		Object entry = prefetched.remove(window);
+		if (entry instanceof Prefetch) {
+			((Prefetch) entry).cancel(false);
+		}
+		if (entry != null) {
+			metrics.wastedPrefetches.incrementAndGet();
+		}
+	}
+}
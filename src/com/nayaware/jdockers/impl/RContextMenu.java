@@ -0,0 +1,153 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+
+import javax.swing.Action;
+import javax.swing.JMenu;
+import javax.swing.JMenuItem;
+import javax.swing.JPopupMenu;
+import javax.swing.SwingUtilities;
+import javax.swing.event.PopupMenuEvent;
+import javax.swing.event.PopupMenuListener;
+
+/**
+ * A context menu which is created once and shared by all panes of a kind. Its
+ * items are bound to shared, stateless actions which find the pane they act on
+ * through the menu's invoker (see {@link #getPane(ActionEvent)}). Before the
+ * menu is shown, the pane adjusts the visibility of the items and updates the
+ * window items with {@link #updateWindowItems(JMenu, RWindowPane, Action)}
+ * which reuses the existing menu items.
+ */
+class RContextMenu extends JPopupMenu {
+
+	/**
+	 * Location where the menu was last shown, relative to its invoker.
+	 */
+	int invokerX, invokerY;
+
+	RContextMenu() {
+		addPopupMenuListener(new PopupMenuListener() {
+			public void popupMenuWillBecomeVisible(PopupMenuEvent e) {
+			}
+
+			/*
+			 * The menu must not keep the last pane alive. Menu actions are
+			 * performed after the menu has been hidden, so release the invoker
+			 * afterwards.
+			 */
+			public void popupMenuWillBecomeInvisible(PopupMenuEvent e) {
+				SwingUtilities.invokeLater(new Runnable() {
+					public void run() {
+						if (!isVisible()) {
+							setInvoker(null);
+						}
+					}
+				});
+			}
+
+			public void popupMenuCanceled(PopupMenuEvent e) {
+			}
+		});
+	}
+
+	public void show(Component invoker, int x, int y) {
+		invokerX = x;
+		invokerY = y;
+		super.show(invoker, x, y);
+	}
+
+	/**
+	 * Returns the pane an action was performed for or <code>null</code>. The
+	 * source of the event is either a component of the pane or a menu item of
+	 * a context menu which was invoked by such a component.
+	 */
+	static RWindowPane getPane(ActionEvent e) {
+		if (!(e.getSource() instanceof Component)) {
+			return null;
+		}
+		Component c = (Component) e.getSource();
+		while (c != null) {
+			if (c instanceof RWindowPane) {
+				return (RWindowPane) c;
+			}
+			c = c instanceof JPopupMenu ? ((JPopupMenu) c).getInvoker() : c
+					.getParent();
+		}
+		return null;
+	}
+
+	/**
+	 * Returns the context menu an action was performed from or
+	 * <code>null</code>.
+	 */
+	static RContextMenu getMenu(ActionEvent e) {
+		if (!(e.getSource() instanceof Component)) {
+			return null;
+		}
+		Component c = (Component) e.getSource();
+		while (c != null) {
+			if (c instanceof RContextMenu) {
+				return (RContextMenu) c;
+			}
+			c = c instanceof JPopupMenu ? ((JPopupMenu) c).getInvoker() : c
+					.getParent();
+		}
+		return null;
+	}
+
+	/**
+	 * Makes the menu list one item per window of the pane, reusing the
+	 * existing items and only changing texts which differ. The items carry the
+	 * window index as their action command.
+	 */
+	static void updateWindowItems(JMenu menu, RWindowPane pane,
+			Action selectAction) {
+		int count = pane.getWindowCount();
+		while (menu.getItemCount() > count) {
+			menu.remove(menu.getItemCount() - 1);
+		}
+		for (int i = 0; i < count; i++) {
+			JMenuItem item;
+			if (i < menu.getItemCount()) {
+				item = menu.getItem(i);
+			} else {
+				item = new JMenuItem();
+				item.setActionCommand(String.valueOf(i));
+				item.addActionListener(selectAction);
+				menu.add(item);
+			}
+			String title = pane.getWindow(i).getTitle();
+			if (title == null ? item.getText() != null : !title.equals(item
+					.getText())) {
+				item.setText(title);
+			}
+		}
+	}
+
+	/**
+	 * Creates the "Split" menu whose items carry the direction as their action
+	 * command.
+	 */
+	static JMenu createSplitMenu(Action splitAction) {
+		JMenu splits = new JMenu("Split");
+		JMenuItem item;
+		item = new JMenuItem("Top");
+		item.setActionCommand("0");
+		item.addActionListener(splitAction);
+		splits.add(item);
+		item = new JMenuItem("Left");
+		item.setActionCommand("1");
+		item.addActionListener(splitAction);
+		splits.add(item);
+		item = new JMenuItem("Bottom");
+		item.setActionCommand("2");
+		item.addActionListener(splitAction);
+		splits.add(item);
+		item = new JMenuItem("Right");
+		item.setActionCommand("3");
+		item.addActionListener(splitAction);
+		splits.add(item);
+		return splits;
+	}
+}
@@ -16,7 +16,10 @@ import com.nayaware.jdockers.DockableWindowListener;
  */
 public class RDockableWindow extends RLayoutWindow implements DockableWindow {
 
-	private Vector windowListeners = new Vector(1);
+	/**
+	 * The listeners, <code>null</code> until the first one is added.
+	 */
+	private Vector windowListeners;
 
 	private String dockState = DOCK_STATE_DOCKED;
 
@@ -46,6 +49,9 @@ public class RDockableWindow extends RLayoutWindow implements DockableWindow {
 		if (listener == null) {
 			throw new NullPointerException();
 		}
+		if (windowListeners == null) {
+			windowListeners = new Vector(1);
+		}
 		windowListeners.add(listener);
 	}
 
@@ -53,7 +59,9 @@ public class RDockableWindow extends RLayoutWindow implements DockableWindow {
 	 * Removes a listener from the receiver.
 	 */
 	public void removeDockableWindowListener(DockableWindowListener listener) {
-		windowListeners.remove(listener);
+		if (windowListeners != null) {
+			windowListeners.remove(listener);
+		}
 	}
 
 	// accessors
@@ -90,7 +98,13 @@ public class RDockableWindow extends RLayoutWindow implements DockableWindow {
 				&& !DOCK_STATE_AUTOHIDDEN.equals(dockState)) {
 			throw new IllegalArgumentException(dockState);
 		}
-		this.dockState = dockState;
+		if (isVisible() && !dockState.equals(this.dockState)) {
+			getLayoutManager().getLayoutMetrics().windowShown(this, -1);
+			this.dockState = dockState;
+			getLayoutManager().getLayoutMetrics().windowShown(this, 1);
+		} else {
+			this.dockState = dockState;
+		}
 	}
 
 	// private event triggers
@@ -101,46 +115,61 @@ public class RDockableWindow extends RLayoutWindow implements DockableWindow {
 	}
 
 	void fireWindowDeactivated() {
+		if (windowListeners == null) {
+			return;
+		}
 		Vector l = (Vector) windowListeners.clone();
 		int size = l.size();
 		if (size > 0) {
 			RDockableWindowEvent e = new RDockableWindowEvent(this);
 			for (int i = 0; i < size; i++) {
-				((DockableWindowListener) l.get(i))
-						.dockableWindowDeactivated(e);
+				getLayoutManager().dispatch(l.get(i),
+						RLayoutManager.DEACTIVATED, e);
 			}
 		}
 	}
 
 	void fireWindowAutoHidden() {
+		if (windowListeners == null) {
+			return;
+		}
 		Vector l = (Vector) windowListeners.clone();
 		int size = l.size();
 		if (size > 0) {
 			RDockableWindowEvent e = new RDockableWindowEvent(this);
 			for (int i = 0; i < size; i++) {
-				((DockableWindowListener) l.get(i)).dockableWindowAutoHidden(e);
+				getLayoutManager().dispatch(l.get(i),
+						RLayoutManager.AUTO_HIDDEN, e);
 			}
 		}
 	}
 
 	void fireWindowFloated() {
+		if (windowListeners == null) {
+			return;
+		}
 		Vector l = (Vector) windowListeners.clone();
 		int size = l.size();
 		if (size > 0) {
 			RDockableWindowEvent e = new RDockableWindowEvent(this);
 			for (int i = 0; i < size; i++) {
-				((DockableWindowListener) l.get(i)).dockableWindowFloated(e);
+				getLayoutManager().dispatch(l.get(i),
+						RLayoutManager.FLOATED, e);
 			}
 		}
 	}
 
 	void fireWindowDocked() {
+		if (windowListeners == null) {
+			return;
+		}
 		Vector l = (Vector) windowListeners.clone();
 		int size = l.size();
 		if (size > 0) {
 			RDockableWindowEvent e = new RDockableWindowEvent(this);
 			for (int i = 0; i < size; i++) {
-				((DockableWindowListener) l.get(i)).dockableWindowDocked(e);
+				getLayoutManager().dispatch(l.get(i),
+						RLayoutManager.DOCKED, e);
 			}
 		}
 	}
@@ -172,6 +201,23 @@ public class RDockableWindow extends RLayoutWindow implements DockableWindow {
 		}
 	}
 
+	long estimateSize() {
+		long size = super.estimateSize() + 4 * RLayoutManager.REFERENCE_SIZE;
+		if (windowListeners != null) {
+			size += RLayoutManager.OBJECT_SIZE
+					+ RLayoutManager.sizeOfArray(windowListeners.capacity());
+		}
+		if (layoutHint != null) {
+			// the layout container's soft reference to the hint
+			size += RLayoutManager.OBJECT_SIZE + RLayoutManager.sizeOfMap(1)
+					+ layoutHint.estimateSize();
+		}
+		if (autohidePaneSize != null) {
+			size += RLayoutManager.OBJECT_SIZE + 8;
+		}
+		return size;
+	}
+
 	void update(RMemento memento) {
 		memento.putString("window", getName());
 		memento.putString("dockState", getDockState());
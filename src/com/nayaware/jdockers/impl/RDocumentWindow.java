@@ -1,6 +1,7 @@
 
 package com.nayaware.jdockers.impl;
 
+import com.nayaware.jdockers.ContentProvider;
 import com.nayaware.jdockers.DockableWindowListener;
 import com.nayaware.jdockers.DocumentWindow;
 import com.nayaware.jdockers.DocumentWindowListener;
@@ -14,6 +15,8 @@ import com.nayaware.jdockers.DocumentWindowListener;
  */
 public class RDocumentWindow extends RDockableWindow implements DocumentWindow {
 
+	private ContentProvider contentProvider;
+
 	// constructors
 	// ------------------------------------------------------------------------------
 
@@ -40,4 +43,15 @@ public class RDocumentWindow extends RDockableWindow implements DocumentWindow {
 		throw new UnsupportedOperationException();
 	}
 
+	// content
+	// -----------------------------------------------------------------------------------
+
+	public void setContentProvider(ContentProvider provider) {
+		contentProvider = provider;
+	}
+
+	public ContentProvider getContentProvider() {
+		return contentProvider;
+	}
+
 }
@@ -27,6 +27,11 @@ public class RFloatingFrame extends JDialog {
 
 	RFloatingDockablePane pane;
 
+	/**
+	 * Whether the frame was handed out by the Layout Pane and not yet disposed.
+	 */
+	boolean open;
+
 	class RFloatingDockablePane extends RCombinedDockablePane {
 
 		RFloatingDockablePane() {
@@ -165,8 +170,23 @@ public class RFloatingFrame extends JDialog {
 
 	// -------------------------------------------------------------------------------------------
 
+	/**
+	 * Removes all windows and returns the frame to the Layout Pane's pool of
+	 * Floating Frames. It is only really disposed if the pool is full.
+	 */
 	public void dispose() {
 		pane.dispose();
+		pane.setActive(false);
+		layoutPane.floatingFrameClosed(this);
+		if (!layoutPane.releaseFloatingFrame(this)) {
+			super.dispose();
+		}
+	}
+
+	/**
+	 * Disposes the frame without returning it to the pool.
+	 */
+	void destroy() {
 		super.dispose();
 	}
 
@@ -3,20 +3,30 @@ package com.nayaware.jdockers.impl;
 import java.awt.AWTEvent;
 import java.awt.Component;
 import java.awt.Cursor;
+import java.awt.Dimension;
+import java.awt.DisplayMode;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsDevice;
 import java.awt.Point;
 import java.awt.Rectangle;
 import java.awt.event.AWTEventListener;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
 import java.awt.event.ComponentEvent;
 import java.awt.event.FocusEvent;
 import java.awt.event.MouseEvent;
 import java.awt.event.WindowEvent;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
+import java.util.Map;
 import java.util.WeakHashMap;
 
 import javax.swing.JButton;
 import javax.swing.JMenuItem;
 import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+
+import com.nayaware.jdockers.LayoutManager;
 
 /**
  * This listener implements collapsing of Auto Hide Panes if the mouse is
@@ -56,6 +66,33 @@ class RGlobalEventListener implements AWTEventListener {
 	Component cursorChangedComponent, cursorChangedParent;
 	Point prevResizePoint = null;
 
+	/**
+	 * Refresh rate assumed if the display doesn't know its own.
+	 */
+	static final int DEFAULT_REFRESH_RATE = 60;
+
+	/**
+	 * The Floating Frame currently resized and the size it shall get next or
+	 * <code>null</code> if it's already up to date.
+	 */
+	RFloatingFrame resizedFrame;
+	Dimension pendingResizeSize;
+
+	/**
+	 * Time of the last real resize in throttled mode.
+	 */
+	long lastResizeTime;
+
+	/**
+	 * Applies the last pending size in throttled mode.
+	 */
+	Timer resizeTimer;
+
+	/**
+	 * Outline shown while resizing in outline mode, created lazily.
+	 */
+	DnDSupport.DnDDragIndicator resizeOutline;
+
 	RGlobalEventListener(RLayoutPane pane) {
 		this.pane = pane;
 		normalCursor = pane.getCursor();
@@ -231,6 +268,7 @@ class RGlobalEventListener implements AWTEventListener {
 		Component comp = getPane2(me);
 		startAutohideViewResize = false;
 		floatingFrameResize = false;
+		finishFloatingFrameResize();
 		if (cursorChangedComponent != null) {
 			cursorChangedComponent.setCursor(normalCursor);
 			cursorChangedComponent = null;
@@ -355,18 +393,119 @@ class RGlobalEventListener implements AWTEventListener {
 		} else {
 			prevResizePoint = p;
 		}
+		// while the size isn't applied, the frame still has its old size
+		Dimension size = fPane.getSize();
+		if (fPane == resizedFrame && pendingResizeSize != null) {
+			size = pendingResizeSize;
+		}
 		switch (floatingFrameResizeEdge) {
 		case SOUTH:
-			fPane.setSize(fPane.getWidth(), (int) p.getY());
+			size = new Dimension(size.width, (int) p.getY());
 			break;
 		case EAST:
-			fPane.setSize((int) p.getX(), fPane.getHeight());
+			size = new Dimension((int) p.getX(), size.height);
 			break;
 		case SOUTH_EAST:
-			fPane.setSize((int) p.getX(), (int) p.getY());
+			size = new Dimension((int) p.getX(), (int) p.getY());
 			break;
+		default:
+			return;
+		}
+		if (resizedFrame != fPane) {
+			finishFloatingFrameResize();
+			resizedFrame = fPane;
+		}
+		pendingResizeSize = size;
+
+		String mode = pane.floatingFrameResizeMode;
+		if (LayoutManager.RESIZE_MODE_OUTLINE.equals(mode)) {
+			if (resizeOutline == null) {
+				resizeOutline = new DnDSupport.DnDDragIndicator(pane);
+			}
+			Point pt = fPane.getLocationOnScreen();
+			resizeOutline.show(pt.x, pt.y, size.width, size.height);
+		} else if (LayoutManager.RESIZE_MODE_THROTTLED.equals(mode)) {
+			int interval = getFrameInterval(fPane);
+			long elapsed = (System.nanoTime() - lastResizeTime) / 1000000;
+			if (elapsed >= interval) {
+				applyFloatingFrameResize();
+			} else if (resizeTimer == null || !resizeTimer.isRunning()) {
+				if (resizeTimer == null) {
+					resizeTimer = new Timer(interval, new ActionListener() {
+						public void actionPerformed(ActionEvent e) {
+							applyFloatingFrameResize();
+						}
+					});
+					resizeTimer.setRepeats(false);
+				}
+				resizeTimer.setInitialDelay(interval - (int) elapsed);
+				resizeTimer.start();
+			}
+		} else {
+			applyFloatingFrameResize();
+		}
+	}
+
+	/**
+	 * Gives the resized Floating Frame its pending size.
+	 */
+	void applyFloatingFrameResize() {
+		if (resizedFrame != null && pendingResizeSize != null) {
+			resizedFrame.setSize(pendingResizeSize);
+			resizedFrame.validate();
+			pendingResizeSize = null;
+			lastResizeTime = System.nanoTime();
+		}
+	}
+
+	/**
+	 * Ends resizing a Floating Frame, applying a still pending size once.
+	 */
+	void finishFloatingFrameResize() {
+		if (resizeTimer != null) {
+			resizeTimer.stop();
+		}
+		if (resizeOutline != null) {
+			resizeOutline.hide();
 		}
+		applyFloatingFrameResize();
+		resizedFrame = null;
+		prevResizePoint = null;
+	}
 
+	/**
+	 * Maps each GraphicsDevice to its frame interval as Integer. Asking a
+	 * device for its display mode can be slow, e.g. on X11, and the interval
+	 * is needed for each drag event and each batch of queued updates.
+	 */
+	private static final Map frameIntervals = new WeakHashMap();
+
+	/**
+	 * Returns the time in milliseconds between two frames of the display
+	 * showing the specified component.
+	 */
+	static int getFrameInterval(Component c) {
+		GraphicsConfiguration gc = c.getGraphicsConfiguration();
+		if (gc == null) {
+			return 1000 / DEFAULT_REFRESH_RATE;
+		}
+		GraphicsDevice device = gc.getDevice();
+		synchronized (frameIntervals) {
+			Integer interval = (Integer) frameIntervals.get(device);
+			if (interval == null) {
+				int rate = DisplayMode.REFRESH_RATE_UNKNOWN;
+				DisplayMode mode = device.getDisplayMode();
+				if (mode != null) {
+					rate = mode.getRefreshRate();
+				}
+				if (rate <= 0) {
+					rate = DEFAULT_REFRESH_RATE;
+				}
+				interval = Integer.valueOf(Math.max(1, 1000 / rate));
+				frameIntervals.put(device, interval);
+			}
+			return interval.intValue();
+		}
 	}
 
 	public void mouseMoved(final java.awt.event.MouseEvent me) {
@@ -422,10 +561,9 @@ class RGlobalEventListener implements AWTEventListener {
 			Point p = SwingUtilities.convertPoint(me.getComponent(),
 					me.getPoint(), fPane);
 			fPane.setCursor(findCursor(p, fPane));
+			// the frame validates itself whenever its size is applied
 			if (floatingFrameResize)
 				resizeFloatingFrame(p, fPane);
-			fPane.invalidate();
-			fPane.validate();
 		}
 
 		Component comp = getPane2(me);
@@ -0,0 +1,206 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.util.LinkedList;
+
+import javax.swing.SwingUtilities;
+
+/**
+ * This class measures layout operations on the event dispatch thread and
+ * reports the ones which take longer than the slow operation threshold, with
+ * the stack of the caller and the number of components of the layout pane.
+ * While an operation is running, a watchdog thread reports the stack of the
+ * event dispatch thread if the operation stalls it for longer than the
+ * threshold. Operations are bracketed by {@link #begin(String, Component)}
+ * and {@link #end()}; nested operations are reported as part of the outermost
+ * one. All Layout Managers share one monitor as they share the event dispatch
+ * thread. It's disabled by default and then only costs a field read per
+ * operation.
+ */
+class RLatencyMonitor implements Runnable {
+
+	/**
+	 * Number of reports kept for {@link #getReports()}.
+	 */
+	static final int MAX_REPORTS = 20;
+
+	/**
+	 * Maximum nesting of operations which is tracked.
+	 */
+	static final int MAX_DEPTH = 16;
+
+	/**
+	 * The threshold in milliseconds or <code>0</code> if disabled.
+	 */
+	private static volatile int threshold;
+
+	private static final LinkedList reports = new LinkedList();
+
+	private static Thread watchdog;
+
+	// the operations in progress; only accessed on the event dispatch thread
+	private static int depth;
+
+	private static final String[] operations = new String[MAX_DEPTH];
+
+	private static final long[] starts = new long[MAX_DEPTH];
+
+	private static Component pane;
+
+	private static StringBuffer nested = new StringBuffer();
+
+	// the outermost operation in progress as seen by the watchdog
+	private static volatile String operation;
+
+	private static volatile long operationStart;
+
+	private static volatile Thread dispatchThread;
+
+	private RLatencyMonitor() {
+	}
+
+	/**
+	 * Sets the threshold in milliseconds, <code>0</code> disables the monitor.
+	 */
+	static synchronized void setThreshold(int millis) {
+		if (millis < 0) {
+			throw new IllegalArgumentException("negative threshold: " + millis);
+		}
+		threshold = millis;
+		if (millis > 0 && watchdog == null) {
+			watchdog = new Thread(new RLatencyMonitor(), "winsys watchdog");
+			watchdog.setDaemon(true);
+			watchdog.start();
+		}
+	}
+
+	static int getThreshold() {
+		return threshold;
+	}
+
+	/**
+	 * Returns the most recent reports, the oldest first.
+	 */
+	static String[] getReports() {
+		synchronized (reports) {
+			return (String[]) reports.toArray(new String[reports.size()]);
+		}
+	}
+
+	/**
+	 * Starts measuring the named operation of the specified pane.
+	 */
+	static void begin(String name, Component layoutPane) {
+		if (threshold == 0 || !SwingUtilities.isEventDispatchThread()) {
+			return;
+		}
+		if (depth < MAX_DEPTH) {
+			operations[depth] = name;
+			starts[depth] = System.nanoTime();
+		}
+		if (depth == 0) {
+			pane = layoutPane;
+			dispatchThread = Thread.currentThread();
+			operationStart = starts[0];
+			operation = name;
+		}
+		depth++;
+	}
+
+	/**
+	 * Stops measuring the innermost operation and reports it if it was slow.
+	 */
+	static void end() {
+		if (depth == 0 || !SwingUtilities.isEventDispatchThread()) {
+			return;
+		}
+		depth--;
+		if (depth >= MAX_DEPTH) {
+			return;
+		}
+		long millis = (System.nanoTime() - starts[depth]) / 1000000;
+		int limit = threshold;
+		if (depth > 0) {
+			if (limit > 0 && millis > limit) {
+				nested.append("\n  including ").append(operations[depth])
+						.append(" (").append(millis).append(" ms)");
+			}
+			return;
+		}
+		operation = null;
+		operationStart = 0;
+		if (limit > 0 && millis > limit) {
+			StringBuffer sb = new StringBuffer();
+			sb.append("slow operation ").append(operations[0]).append(": ")
+					.append(millis).append(" ms, ").append(
+							countComponents(pane)).append(" components");
+			sb.append(nested);
+			// skip getStackTrace() and end()
+			appendStack(sb, Thread.currentThread().getStackTrace(), 2);
+			report(sb.toString());
+		}
+		nested.setLength(0);
+		pane = null;
+		operations[0] = null;
+	}
+
+	/**
+	 * Watches the event dispatch thread while an operation is in progress.
+	 */
+	public void run() {
+		long reported = 0;
+		while (true) {
+			int limit = threshold;
+			try {
+				Thread.sleep(Math.max(10, (limit > 0 ? limit : 1000) / 2));
+			} catch (InterruptedException e) {
+				return;
+			}
+			String name = operation;
+			long start = operationStart;
+			Thread thread = dispatchThread;
+			if (limit == 0 || name == null || start == 0 || start == reported) {
+				continue;
+			}
+			long millis = (System.nanoTime() - start) / 1000000;
+			if (millis > limit) {
+				reported = start;
+				StringBuffer sb = new StringBuffer();
+				sb.append("event dispatch thread stalled in ").append(name)
+						.append(" for ").append(millis).append(" ms");
+				appendStack(sb, thread.getStackTrace(), 0);
+				report(sb.toString());
+			}
+		}
+	}
+
+	private static void appendStack(StringBuffer sb,
+			StackTraceElement[] stack, int skip) {
+		for (int i = skip; i < stack.length; i++) {
+			sb.append("\n\tat ").append(stack[i]);
+		}
+	}
+
+	private static void report(String message) {
+		synchronized (reports) {
+			reports.addLast(message);
+			if (reports.size() > MAX_REPORTS) {
+				reports.removeFirst();
+			}
+		}
+		System.err.print("winsys: ");
+		System.err.println(message);
+	}
+
+	private static int countComponents(Component c) {
+		int count = 1;
+		if (c instanceof Container) {
+			Component[] children = ((Container) c).getComponents();
+			for (int i = 0; i < children.length; i++) {
+				count += countComponents(children[i]);
+			}
+		}
+		return count;
+	}
+}
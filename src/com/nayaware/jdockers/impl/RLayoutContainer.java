@@ -13,6 +13,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Map.Entry;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JPanel;
 import javax.swing.JSplitPane;
@@ -38,6 +39,12 @@ class RLayoutContainer extends JPanel {
 
 	private Map layoutHints = new HashMap();
 
+	/**
+	 * Number of layout hints computed by updateLayoutHint(), read by the
+	 * Layout Manager's metrics from any thread.
+	 */
+	final AtomicLong layoutHintUpdates = new AtomicLong();
+
 	// Constructors
 	// ------------------------------------------------------------------------------
 
@@ -390,69 +397,78 @@ class RLayoutContainer extends JPanel {
 	 * of floating frames.
 	 */
 	void updateLayoutHint(RDockableWindow window) {
-		// System.out.println("UPDATE: " + window.getName());
-		if (!window.isVisible()) {
-			return;
-		}
+		RLatencyMonitor.begin("updateLayoutHint", this);
+		try {
+			// System.out.println("UPDATE: " + window.getName());
+			if (!window.isVisible()) {
+				return;
+			}
 
-		// find the window's pane
-		RWindowPane pane = findWindowPane(window);
-		if (pane == null) {
-			return;
-		}
+			// find the window's pane
+			RWindowPane pane = findWindowPane(window);
+			if (pane == null) {
+				return;
+			}
 
-		// find the window's pane's tiledcontainer
-		RTiledContainer container = pane.getParentTiledContainer();
-		if (container == null) {
-			return;
-		}
+			// find the window's pane's tiledcontainer
+			RTiledContainer container = pane.getParentTiledContainer();
+			if (container == null) {
+				return;
+			}
 
-		RMemento layoutHint = new RMemento("layoutHint");
-		layoutHint.putString("window", window.getName());
+			layoutHintUpdates.incrementAndGet();
+			RMemento layoutHint = new RMemento("layoutHint");
+			layoutHint.putString("window", window.getName());
 
-		layoutHint.putString("dockState", window.getDockState());
+			layoutHint.putString("dockState", window.getDockState());
 
-		if (RDockableWindow.DOCK_STATE_FLOATED.equals(window.getDockState())) {
-			updateFloatingFrameDimensions(window);
-		} else {
-			RMemento hint = getLayoutHint(window);
-			if (hint != null) {
-				hint = hint.getChild("floatingBounds");
+			if (RDockableWindow.DOCK_STATE_FLOATED
+					.equals(window.getDockState())) {
+				updateFloatingFrameDimensions(window);
+			} else {
+				RMemento hint = getLayoutHint(window);
 				if (hint != null) {
-					layoutHint.putMemento(hint);
+					hint = hint.getChild("floatingBounds");
+					if (hint != null) {
+						layoutHint.putMemento(hint);
+					}
 				}
 			}
-		}
-		if (window.autohidePaneSize != null) {
-			layoutHint.putInteger("autohidePaneWidth",
-					window.autohidePaneSize.width);
-			layoutHint.putInteger("autohidePaneHeight",
-					window.autohidePaneSize.height);
-		}
+			if (window.autohidePaneSize != null) {
+				layoutHint.putInteger("autohidePaneWidth",
+						window.autohidePaneSize.width);
+				layoutHint.putInteger("autohidePaneHeight",
+						window.autohidePaneSize.height);
+			}
 
-		// store the window's siblings
-		for (int i = 0; i < pane.getWindowCount(); i++) {
-			RDockableWindow w = pane.getWindow(i);
-			if (w != window) {
-				layoutHint.createMemento("sibling").putString("name",
-						w.getName());
+			// store the window's siblings
+			for (int i = 0; i < pane.getWindowCount(); i++) {
+				RDockableWindow w = pane.getWindow(i);
+				if (w != window) {
+					layoutHint.createMemento("sibling").putString("name",
+							w.getName());
+				}
 			}
-		}
 
-		// store enough information to recreate the tiled container if needed
-		layoutHint.putInteger("containerDockSide", container.getPosition());
-		layoutHint.putInteger("containerDominance", container.getDominance());
-		layoutHint.putInteger("containerWidth", container.getWidth());
-		layoutHint.putInteger("containerHeight", container.getHeight());
+			// store enough information to recreate the tiled container if
+			// needed
+			layoutHint.putInteger("containerDockSide", container.getPosition());
+			layoutHint.putInteger("containerDominance", container
+					.getDominance());
+			layoutHint.putInteger("containerWidth", container.getWidth());
+			layoutHint.putInteger("containerHeight", container.getHeight());
 
-		layoutHint.putInteger("width", pane.getWidth());
-		layoutHint.putInteger("height", pane.getHeight());
+			layoutHint.putInteger("width", pane.getWidth());
+			layoutHint.putInteger("height", pane.getHeight());
 
-		positionOfPane(layoutHint, container, pane);
+			positionOfPane(layoutHint, container, pane);
 
-		setLayoutHint(window, layoutHint);
+			setLayoutHint(window, layoutHint);
 
-		// System.out.println("Snapshot: " + layoutHint);
+			// System.out.println("Snapshot: " + layoutHint);
+		} finally {
+			RLatencyMonitor.end();
+		}
 	}
 
 	private void positionOfPane(RMemento layoutHint, RTiledContainer container,
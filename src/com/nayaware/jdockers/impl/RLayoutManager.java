@@ -10,7 +10,10 @@ import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.lang.management.ManagementFactory;
 import java.util.ArrayList;
+import java.util.EventListener;
+import java.util.EventObject;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -19,6 +22,10 @@ import java.util.Map;
 import java.util.Set;
 import java.util.Vector;
 
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 import javax.swing.ImageIcon;
 import javax.swing.JComponent;
 
@@ -44,6 +51,37 @@ public class RLayoutManager implements LayoutManager {
 	 */
 	private RLayoutPane layoutPane = new RLayoutPane();
 
+	/**
+	 * Runtime statistics, see {@link #getMetrics()}.
+	 */
+	private RLayoutMetrics metrics = new RLayoutMetrics(layoutPane);
+
+	/**
+	 * Thread-safe view, see {@link #async()}.
+	 */
+	private RAsyncLayoutManager async = new RAsyncLayoutManager(this);
+
+	/**
+	 * Coalesces title, icon and content updates of the windows.
+	 */
+	private RUpdateCoalescer updates = new RUpdateCoalescer(layoutPane);
+
+	/**
+	 * Creates and prefetches the contents of Document Windows.
+	 */
+	private RContentPrefetcher prefetcher = new RContentPrefetcher(metrics);
+
+	/**
+	 * Name of the metrics MBean or <code>null</code> if not registered.
+	 */
+	private ObjectName metricsName;
+
+	/**
+	 * Number of Layout Managers with a registered metrics MBean, used to make
+	 * the MBean names unique.
+	 */
+	private static int metricsMBeanCount;
+
 	/**
 	 * Registry of all opened and created Layout Windows.
 	 */
@@ -132,30 +170,53 @@ public class RLayoutManager implements LayoutManager {
 	}
 
 	private void openLayoutWindowImpl(LayoutWindow layoutWindow) {
+		if (leakTracker != null) {
+			leakTracker.untrack(layoutWindow);
+		}
 		windowRegistry.put(layoutWindow.getName(), layoutWindow);
+		((RLayoutWindow) layoutWindow).setOpen(true);
+		metrics.windowOpened((RLayoutWindow) layoutWindow);
 		fireWindowOpened((RLayoutWindow) layoutWindow);
 	}
 
 	public void closeLayoutWindow(LayoutWindow layoutWindow) {
-		String name = layoutWindow.getName();
-		if (isVisible(layoutWindow)) {
-			log("closeLayoutWindow: try to close shown window: ", name);
-			return;
-		} else if (windowRegistry.remove(name) == null) {
-			log("closeLayoutWindow: try to close unopened window: ", name);
-			return;
+		RLatencyMonitor.begin("closeLayoutWindow", layoutPane);
+		try {
+			String name = layoutWindow.getName();
+			if (isVisible(layoutWindow)) {
+				log("closeLayoutWindow: try to close shown window: ", name);
+				return;
+			} else if (windowRegistry.remove(name) == null) {
+				log("closeLayoutWindow: try to close unopened window: ", name);
+				return;
+			}
+			((RLayoutWindow) layoutWindow).setOpen(false);
+			metrics.windowClosed((RLayoutWindow) layoutWindow);
+			fireWindowClosed((RLayoutWindow) layoutWindow);
+			layoutPane.disposeWindow((RLayoutWindow) layoutWindow);
+			prefetcher.windowClosed((RLayoutWindow) layoutWindow);
+			updates.windowClosed((RLayoutWindow) layoutWindow);
+			if (leakTracker != null) {
+				leakTracker.track(layoutWindow, name);
+			}
+		} finally {
+			RLatencyMonitor.end();
 		}
-		fireWindowClosed((RLayoutWindow) layoutWindow);
 	}
 
 	public void showLayoutWindow(LayoutWindow layoutWindow) {
-		if (isVisible(layoutWindow)) {
-			return;
-		}
+		RLatencyMonitor.begin("showLayoutWindow", layoutPane);
+		try {
+			if (isVisible(layoutWindow)) {
+				return;
+			}
 
-		RLayoutWindow window = (RLayoutWindow) layoutWindow;
-		layoutPane.addWindow(window);
-		// fireWindowShown(window);
+			RLayoutWindow window = (RLayoutWindow) layoutWindow;
+			layoutPane.addWindow(window);
+			// fireWindowShown(window);
+		} finally {
+			RLatencyMonitor.end();
+		}
 	}
 
 	public void autohideLayoutWindow(LayoutWindow layoutWindow) {
@@ -165,28 +226,33 @@ public class RLayoutManager implements LayoutManager {
 	}
 
 	public void hideLayoutWindow(LayoutWindow layoutWindow) {
-		if (!isVisible(layoutWindow)) {
-			return;
-		}
-
-		RLayoutWindow window = (RLayoutWindow) layoutWindow;
-		boolean isDocumentWindow = TYPE_DOCUMENT.equals(window.getType());
-
-		if (isDocumentWindow) {
-			Vector l = getListeners();
-			int size = l.size();
-			if (size > 0) {
-				RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
-				for (Iterator i = l.iterator(); i.hasNext();) {
-					((LayoutWindowListener) i.next()).layoutWindowHiding(e);
-					if (!layoutWindow.isClosable()) {
-						return;
+		RLatencyMonitor.begin("hideLayoutWindow", layoutPane);
+		try {
+			if (!isVisible(layoutWindow)) {
+				return;
+			}
+
+			RLayoutWindow window = (RLayoutWindow) layoutWindow;
+			boolean isDocumentWindow = TYPE_DOCUMENT.equals(window.getType());
+
+			if (isDocumentWindow) {
+				Vector l = getListeners();
+				int size = l.size();
+				if (size > 0) {
+					RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
+					for (Iterator i = l.iterator(); i.hasNext();) {
+						dispatch(i.next(), HIDING, e);
+						if (!layoutWindow.isClosable()) {
+							return;
+						}
 					}
 				}
 			}
+			layoutPane.removeWindow(window);
+			// fireWindowHidden(window);
+		} finally {
+			RLatencyMonitor.end();
 		}
-		layoutPane.removeWindow(window);
-		// fireWindowHidden(window);
 	}
 
 	public boolean isVisible(LayoutWindow layoutWindow) {
@@ -195,19 +261,46 @@ public class RLayoutManager implements LayoutManager {
 	}
 
 	public void activateLayoutWindow(LayoutWindow layoutWindow) {
-		if (!isVisible(layoutWindow)) {
-			return;
-		}
+		RLatencyMonitor.begin("activateLayoutWindow", layoutPane);
+		try {
+			if (!isVisible(layoutWindow)) {
+				return;
+			}
 
-		if (layoutPane.activateLayoutWindow((RDockableWindow) layoutWindow)) {
-			fireWindowActivated((RLayoutWindow) layoutWindow);
+			if (layoutPane
+					.activateLayoutWindow((RDockableWindow) layoutWindow)) {
+				fireWindowActivated((RLayoutWindow) layoutWindow);
+			}
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
 	public void updateLayoutWindow(LayoutWindow layoutWindow) {
-		checkLayoutManager(layoutWindow);
+		RLatencyMonitor.begin("updateLayoutWindow", layoutPane);
+		try {
+			checkLayoutManager(layoutWindow);
+
+			updates.contentChanged((RLayoutWindow) layoutWindow);
+		} finally {
+			RLatencyMonitor.end();
+		}
+	}
+
+	public AsyncLayoutManager async() {
+		return async;
+	}
+
+	public StartupPipeline createStartupPipeline() {
+		return new RStartupPipeline(this);
+	}
 
-		((RLayoutWindow) layoutWindow).fireComponentChanged(null);
+	RUpdateCoalescer getUpdateCoalescer() {
+		return updates;
+	}
+
+	RContentPrefetcher getPrefetcher() {
+		return prefetcher;
 	}
 
 	public LayoutWindow findLayoutWindow(String layoutWindowName) {
@@ -230,13 +323,106 @@ public class RLayoutManager implements LayoutManager {
 	// firing events
 	// -----------------------------------------------------------------------------
 
+	/*
+	 * Listener methods called by dispatch(), first those of
+	 * LayoutWindowListener, then those of DockableWindowListener.
+	 */
+	static final int OPENED = 0, CLOSED = 1, SHOWN = 2, HIDING = 3,
+			HIDDEN = 4, ACTIVATED = 5, SAVE_NEEDED = 6, COMPONENT_ADDED = 7,
+			COMPONENT_REMOVED = 8, CHANGED = 9, DEACTIVATED = 10,
+			AUTO_HIDDEN = 11, FLOATED = 12, DOCKED = 13;
+
+	private static final String[] LISTENER_METHODS = { "layoutWindowOpened",
+			"layoutWindowClosed", "layoutWindowShown", "layoutWindowHiding",
+			"layoutWindowHidden", "layoutWindowActivated",
+			"layoutWindowSaveNeeded", "layoutWindowComponentAdded",
+			"layoutWindowComponentRemoved", "layoutWindowChanged",
+			"dockableWindowDeactivated", "dockableWindowAutoHidden",
+			"dockableWindowFloated", "dockableWindowDocked" };
+
+	/**
+	 * Calls the specified method of a Layout Manager or Dockable Window
+	 * listener and records its duration if an event recorder is set. All
+	 * listener calls go through here, so they are counted and timed alike.
+	 */
+	void dispatch(Object listener, int method, EventObject e) {
+		metrics.listenerDispatches.incrementAndGet();
+		LayoutEventRecorder recorder = layoutPane.recorder;
+		long start = recorder != null ? System.nanoTime() : 0;
+		if (method < DEACTIVATED) {
+			dispatch((LayoutWindowListener) listener, method,
+					(RLayoutWindowEvent) e);
+		} else {
+			dispatch((DockableWindowListener) listener, method,
+					(RDockableWindowEvent) e);
+		}
+		if (recorder != null) {
+			recorder.listenerDispatched(LISTENER_METHODS[method],
+					(EventListener) listener, start, System.nanoTime() - start);
+		}
+	}
+
+	private static void dispatch(LayoutWindowListener l, int method,
+			RLayoutWindowEvent e) {
+		switch (method) {
+		case OPENED:
+			l.layoutWindowOpened(e);
+			break;
+		case CLOSED:
+			l.layoutWindowClosed(e);
+			break;
+		case SHOWN:
+			l.layoutWindowShown(e);
+			break;
+		case HIDING:
+			l.layoutWindowHiding(e);
+			break;
+		case HIDDEN:
+			l.layoutWindowHidden(e);
+			break;
+		case ACTIVATED:
+			l.layoutWindowActivated(e);
+			break;
+		case SAVE_NEEDED:
+			l.layoutWindowSaveNeeded(e);
+			break;
+		case COMPONENT_ADDED:
+			l.layoutWindowComponentAdded(e);
+			break;
+		case COMPONENT_REMOVED:
+			l.layoutWindowComponentRemoved(e);
+			break;
+		case CHANGED:
+			l.layoutWindowChanged(e);
+			break;
+		}
+	}
+
+	private static void dispatch(DockableWindowListener l, int method,
+			RDockableWindowEvent e) {
+		switch (method) {
+		case DEACTIVATED:
+			l.dockableWindowDeactivated(e);
+			break;
+		case AUTO_HIDDEN:
+			l.dockableWindowAutoHidden(e);
+			break;
+		case FLOATED:
+			l.dockableWindowFloated(e);
+			break;
+		case DOCKED:
+			l.dockableWindowDocked(e);
+			break;
+		}
+	}
+
 	void fireWindowOpened(RLayoutWindow window) {
 		Vector l = getListeners();
 		int size = l.size();
 		if (size > 0) {
 			RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowOpened(e);
+				dispatch(l.get(i), OPENED, e);
 			}
 		}
 	}
@@ -247,7 +433,7 @@ public class RLayoutManager implements LayoutManager {
 		if (size > 0) {
 			RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowClosed(e);
+				dispatch(l.get(i), CLOSED, e);
 			}
 		}
 	}
@@ -258,7 +444,7 @@ public class RLayoutManager implements LayoutManager {
 		if (size > 0) {
 			RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowShown(e);
+				dispatch(l.get(i), SHOWN, e);
 			}
 		}
 	}
@@ -269,7 +455,7 @@ public class RLayoutManager implements LayoutManager {
 		if (size > 0) {
 			RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowHidden(e);
+				dispatch(l.get(i), HIDDEN, e);
 			}
 		}
 	}
@@ -280,7 +466,7 @@ public class RLayoutManager implements LayoutManager {
 		if (size > 0) {
 			RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowActivated(e);
+				dispatch(l.get(i), ACTIVATED, e);
 			}
 		}
 	}
@@ -295,7 +481,7 @@ public class RLayoutManager implements LayoutManager {
 		if (size > 0) {
 			RLayoutWindowEvent e = new RLayoutWindowEvent(this, window);
 			for (Iterator i = l.iterator(); i.hasNext();) {
-				((LayoutWindowListener) i.next()).layoutWindowSaveNeeded(e);
+				dispatch(i.next(), SAVE_NEEDED, e);
 			}
 		}
 	}
@@ -334,18 +520,33 @@ public class RLayoutManager implements LayoutManager {
 	}
 
 	public void autohideDockableWindow(DockableWindow dockableWindow) {
-		checkLayoutManager(dockableWindow);
-		layoutPane.requestAutoHide((RDockableWindow) dockableWindow);
+		RLatencyMonitor.begin("autohideDockableWindow", layoutPane);
+		try {
+			checkLayoutManager(dockableWindow);
+			layoutPane.requestAutoHide((RDockableWindow) dockableWindow);
+		} finally {
+			RLatencyMonitor.end();
+		}
 	}
 
 	public void floatDockableWindow(DockableWindow dockableWindow) {
-		checkLayoutManager(dockableWindow);
-		layoutPane.requestFloat((RDockableWindow) dockableWindow);
+		RLatencyMonitor.begin("floatDockableWindow", layoutPane);
+		try {
+			checkLayoutManager(dockableWindow);
+			layoutPane.requestFloat((RDockableWindow) dockableWindow);
+		} finally {
+			RLatencyMonitor.end();
+		}
 	}
 
 	public void redockDockableWindow(DockableWindow dockableWindow) {
-		checkLayoutManager(dockableWindow);
-		layoutPane.requestDock((RDockableWindow) dockableWindow);
+		RLatencyMonitor.begin("redockDockableWindow", layoutPane);
+		try {
+			checkLayoutManager(dockableWindow);
+			layoutPane.requestDock((RDockableWindow) dockableWindow);
+		} finally {
+			RLatencyMonitor.end();
+		}
 	}
 
 	// document window factory & operations
@@ -406,35 +607,45 @@ public class RLayoutManager implements LayoutManager {
 	}
 
 	public void showWindowSet(String windowSetName) {
-		Set windowNames = (Set) windowSetRegistry.get(windowSetName);
-		if (windowNames != null) {
-			for (Iterator i = windowNames.iterator(); i.hasNext();) {
-				Object name = i.next();
-				LayoutWindow w = (LayoutWindow) windowRegistry.get(name);
-				if (w != null) {
-					showLayoutWindow(w);
-				} else {
-					log("showWindowSet: unknown window name: ", name);
+		RLatencyMonitor.begin("showWindowSet", layoutPane);
+		try {
+			Set windowNames = (Set) windowSetRegistry.get(windowSetName);
+			if (windowNames != null) {
+				for (Iterator i = windowNames.iterator(); i.hasNext();) {
+					Object name = i.next();
+					LayoutWindow w = (LayoutWindow) windowRegistry.get(name);
+					if (w != null) {
+						showLayoutWindow(w);
+					} else {
+						log("showWindowSet: unknown window name: ", name);
+					}
 				}
+			} else {
+				log("showWindowSet: can't show unkown window set named: ",
+						windowSetName);
 			}
-		} else {
-			log("showWindowSet: can't show unkown window set named: ",
-					windowSetName);
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
 	public void hideWindowSet(String windowSetName) {
-		Set windowNames = (Set) windowSetRegistry.get(windowSetName);
-		if (windowNames != null) {
-			for (Iterator i = windowNames.iterator(); i.hasNext();) {
-				LayoutWindow window = (LayoutWindow) windowRegistry.get(i
-						.next());
-				if (window != null) {
-					hideLayoutWindow(window);
+		RLatencyMonitor.begin("hideWindowSet", layoutPane);
+		try {
+			Set windowNames = (Set) windowSetRegistry.get(windowSetName);
+			if (windowNames != null) {
+				for (Iterator i = windowNames.iterator(); i.hasNext();) {
+					LayoutWindow window = (LayoutWindow) windowRegistry.get(i
+							.next());
+					if (window != null) {
+						hideLayoutWindow(window);
+					}
 				}
+			} else {
+				log("can't hide unkown window set named: ", windowSetName);
 			}
-		} else {
-			log("can't hide unkown window set named: ", windowSetName);
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -457,13 +668,35 @@ public class RLayoutManager implements LayoutManager {
 		} finally {
 			f.close();
 		}
+		if (snapshotEnabled) {
+			try {
+				RLayoutSnapshot.write(layoutPane, RLayoutSnapshot
+						.fileFor(layoutFile));
+			} catch (IOException e) {
+				log("saveLayout: can't write snapshot: ", e);
+			}
+		}
 	}
 
 	public void loadLayout(File layoutFile) throws IOException {
-		applyLayoutFrom(new BufferedReader(new FileReader(layoutFile)));
+		if (snapshotEnabled) {
+			try {
+				layoutPane.showSnapshot(RLayoutSnapshot.read(RLayoutSnapshot
+						.fileFor(layoutFile)));
+			} catch (IOException e) {
+				log("loadLayout: can't read snapshot: ", e);
+			}
+		}
+		try {
+			applyLayoutFrom(new BufferedReader(new FileReader(layoutFile)),
+					layoutFile.length());
+		} finally {
+			layoutPane.hideSnapshot();
+		}
 	}
 
 	public String getLayout() {
+		long start = System.nanoTime();
 		StringWriter w = new StringWriter(4096);
 		try {
 			saveLayoutTo(w);
@@ -471,20 +704,179 @@ public class RLayoutManager implements LayoutManager {
 		} catch (IOException e) {
 			throw new Error(e); // should never happen
 		}
-		return w.toString();
+		String layout = w.toString();
+		long duration = System.nanoTime() - start;
+		metrics.layoutSaved(duration);
+		LayoutEventRecorder recorder = layoutPane.recorder;
+		if (recorder != null) {
+			recorder.layoutSaved(start, duration, layout.length(),
+					windowRegistry.size());
+		}
+		return layout;
 	}
 
 	public void setLayout(String layoutData) throws IOException {
-		applyLayoutFrom(new StringReader(layoutData));
+		applyLayoutFrom(new StringReader(layoutData), layoutData.length());
+	}
+
+	/**
+	 * <code>true</code> if layout files are accompanied by a snapshot.
+	 */
+	private boolean snapshotEnabled;
+
+	public void setLayoutSnapshotEnabled(boolean enable) {
+		snapshotEnabled = enable;
+	}
+
+	public boolean isLayoutSnapshotEnabled() {
+		return snapshotEnabled;
+	}
+
+	// floating frames
+	// ---------------------------------------------------------------------------
+
+	public void setFloatingFrameResizeMode(String mode) {
+		if (!RESIZE_MODE_LIVE.equals(mode)
+				&& !RESIZE_MODE_THROTTLED.equals(mode)
+				&& !RESIZE_MODE_OUTLINE.equals(mode)) {
+			log("setFloatingFrameResizeMode: unknown mode: ", mode);
+			throw new IllegalArgumentException("unknown mode: " + mode);
+		}
+		layoutPane.floatingFrameResizeMode = mode;
+	}
+
+	public String getFloatingFrameResizeMode() {
+		return layoutPane.floatingFrameResizeMode;
+	}
+
+	public void setEventRecorder(LayoutEventRecorder recorder) {
+		layoutPane.recorder = recorder;
+	}
+
+	public LayoutEventRecorder getEventRecorder() {
+		return layoutPane.recorder;
+	}
+
+	public void setPrefetchPolicy(PrefetchPolicy policy) {
+		prefetcher.setPolicy(policy);
+	}
+
+	public PrefetchPolicy getPrefetchPolicy() {
+		return prefetcher.getPolicy();
+	}
+
+	// memory statistics
+	// -------------------------------------------------------------------------
+
+	/*
+	 * Rough object sizes in bytes (64 bit VM), used to estimate the memory
+	 * used by windows.
+	 */
+	static final int OBJECT_SIZE = 16;
+	static final int REFERENCE_SIZE = 8;
+	static final int PANEL_SIZE = 1200;
+	static final int TABBED_PANE_SIZE = 4000;
+
+	static long sizeOf(String s) {
+		return s == null ? 0 : OBJECT_SIZE + 8 + sizeOfArray(0) + 2
+				* s.length();
+	}
+
+	static long sizeOfArray(int length) {
+		return OBJECT_SIZE + 8 + length * REFERENCE_SIZE;
+	}
+
+	static long sizeOfMap(int size) {
+		return OBJECT_SIZE + 32 + sizeOfArray(Math.max(16, size * 2)) + size
+				* (OBJECT_SIZE + 3 * REFERENCE_SIZE + 8);
+	}
+
+	public Map getMemoryStats() {
+		Map stats = new HashMap();
+		for (Iterator i = windowRegistry.values().iterator(); i.hasNext();) {
+			RLayoutWindow w = (RLayoutWindow) i.next();
+			Long size = (Long) stats.get(w.getType());
+			long total = (size == null ? 0 : size.longValue())
+					+ w.estimateSize();
+			stats.put(w.getType(), Long.valueOf(total));
+		}
+		return stats;
 	}
 
-	// logging
+	// metrics
+	// ---------------------------------------------------------------------------------
+
+	public LayoutMetrics getMetrics() {
+		return metrics;
+	}
+
+	RLayoutMetrics getLayoutMetrics() {
+		return metrics;
+	}
+
+	public void enableMetricsMBean(boolean enable) {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			if (enable && metricsName == null) {
+				ObjectName name = new ObjectName(
+						"com.nayaware.jdockers:type=LayoutMetrics,id="
+								+ metricsMBeanCount++);
+				server.registerMBean(new StandardMBean(metrics,
+						LayoutMetrics.class), name);
+				metricsName = name;
+			} else if (!enable && metricsName != null) {
+				server.unregisterMBean(metricsName);
+				metricsName = null;
+			}
+		} catch (JMException e) {
+			log("enableMetricsMBean: ", e);
+			throw new LayoutManagerException(e);
+		}
+	}
+
+	// slow operations
+	// -------------------------------------------------------------------------
+
+	public void setSlowOperationThreshold(int millis) {
+		RLatencyMonitor.setThreshold(millis);
+	}
+
+	public int getSlowOperationThreshold() {
+		return RLatencyMonitor.getThreshold();
+	}
+
+	public String[] getSlowOperationReports() {
+		return RLatencyMonitor.getReports();
+	}
+
+	// debugging
 	// -----------------------------------------------------------------------------------
 
 	private boolean debug;
 
+	/**
+	 * Watches closed windows while debugging is enabled.
+	 */
+	private RLeakTracker leakTracker;
+
 	public void enableDebug(boolean enable) {
 		debug = enable;
+		if (enable && leakTracker == null) {
+			leakTracker = new RLeakTracker(this);
+		} else if (!enable && leakTracker != null) {
+			leakTracker.stop();
+			leakTracker = null;
+		}
+	}
+
+	/**
+	 * Returns the names of closed windows which are still reachable several
+	 * garbage collections after they were closed. Only windows closed while
+	 * debugging was enabled are tracked.
+	 */
+	public String[] getLeakSuspects() {
+		return leakTracker == null ? new String[0] : leakTracker
+				.getSuspects();
 	}
 
 	public void log(String message) {
@@ -535,11 +927,17 @@ public class RLayoutManager implements LayoutManager {
 	 * fire a cascade of hiding events and listeners may veto the hide.
 	 */
 	void hideAll(String type) {
-		for (Iterator i = windowRegistry.values().iterator(); i.hasNext();) {
-			RLayoutWindow w = (RLayoutWindow) i.next();
-			if (type == null || type.equals(w.getType())) {
-				hideLayoutWindow(w);
+		RLatencyMonitor.begin("hideAll", layoutPane);
+		try {
+			for (Iterator i = windowRegistry.values().iterator(); i
+					.hasNext();) {
+				RLayoutWindow w = (RLayoutWindow) i.next();
+				if (type == null || type.equals(w.getType())) {
+					hideLayoutWindow(w);
+				}
 			}
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -547,26 +945,45 @@ public class RLayoutManager implements LayoutManager {
 	 * Closes all windows or all windows of a given type.
 	 */
 	void closeAll(String type) {
-		for (Iterator i = new ArrayList(windowRegistry.values()).iterator(); i
-				.hasNext();) {
-			RLayoutWindow w = (RLayoutWindow) i.next();
-			if (type == null || type.equals(w.getType())) {
-				closeLayoutWindow(w);
+		RLatencyMonitor.begin("closeAll", layoutPane);
+		try {
+			for (Iterator i = new ArrayList(windowRegistry.values())
+					.iterator(); i.hasNext();) {
+				RLayoutWindow w = (RLayoutWindow) i.next();
+				if (type == null || type.equals(w.getType())) {
+					closeLayoutWindow(w);
+				}
 			}
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
 	/**
 	 * Applies the layout to the Layout Pane after completely reading it. This
 	 * is important so that an IOException will either occur before or after but
-	 * never while the layout is modified.
+	 * never while the layout is modified. The size of the layout data is only
+	 * used for recording.
 	 */
-	void applyLayoutFrom(Reader r) throws IOException {
+	void applyLayoutFrom(Reader r, long size) throws IOException {
+		RLatencyMonitor.begin("setLayout", layoutPane);
 		try {
-			layoutPane
-					.restoreLayout(RMemento.read(new BufferedReader(r)), this);
+			long start = System.nanoTime();
+			try {
+				layoutPane.restoreLayout(RMemento.read(new BufferedReader(r)),
+						this);
+			} finally {
+				r.close();
+			}
+			long duration = System.nanoTime() - start;
+			metrics.layoutLoaded(duration);
+			LayoutEventRecorder recorder = layoutPane.recorder;
+			if (recorder != null) {
+				recorder.layoutLoaded(start, duration, size, windowRegistry
+						.size());
+			}
 		} finally {
-			r.close();
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -574,12 +991,17 @@ public class RLayoutManager implements LayoutManager {
 	 * Saves the current layout to the specified writer.
 	 */
 	void saveLayoutTo(Writer w) throws IOException {
-		RMemento memento = new RMemento("layout");
-		layoutPane.saveLayout(memento, this);
-		PrintWriter pw = new PrintWriter(w);
-		pw.println("<?xml version=\"1.0\"?>");
-		memento.write(pw);
-		pw.flush();
+		RLatencyMonitor.begin("getLayout", layoutPane);
+		try {
+			RMemento memento = new RMemento("layout");
+			layoutPane.saveLayout(memento, this);
+			PrintWriter pw = new PrintWriter(w);
+			pw.println("<?xml version=\"1.0\"?>");
+			memento.write(pw);
+			pw.flush();
+		} finally {
+			RLatencyMonitor.end();
+		}
 	}
 
 	/* Callback from LayoutPane#readLayout(Pile, RLayoutManager) */
@@ -610,4 +1032,9 @@ public class RLayoutManager implements LayoutManager {
 		}
 		windowRegistry.put(name, windowRegistry.remove(window.getName()));
 	}
+
+	// for unit testing only
+	public void flushUpdatesForTest() {
+		updates.flush();
+	}
 }
@@ -0,0 +1,298 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.lang.reflect.InvocationTargetException;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import javax.swing.SwingUtilities;
+
+import com.nayaware.jdockers.DockableWindow;
+import com.nayaware.jdockers.LayoutManager;
+import com.nayaware.jdockers.LayoutManagerException;
+import com.nayaware.jdockers.LayoutMetrics;
+
+/**
+ * This class implements the runtime statistics of a Layout Manager. Counters
+ * and histograms are atomic and updated where the counted work happens; this
+ * includes the window counts, which are updated when a window is opened,
+ * closed, shown, hidden or changes its dock state. Only the component count
+ * and the tree depth need to walk the component tree, on the event dispatch
+ * thread, when they are read.
+ */
+class RLayoutMetrics implements LayoutMetrics {
+
+	/**
+	 * Upper bounds of the histogram buckets in milliseconds.
+	 */
+	static final long[] HISTOGRAM_BOUNDS = { 1, 2, 5, 10, 20, 50, 100, 200,
+			500, 1000, 2000, 5000 };
+
+	// indexes into the window counts
+	private static final int DOCKABLE = 0, DOCUMENT = 1, SHOWN = 2,
+			DOCKED = 3, FLOATING = 4, AUTOHIDDEN = 5;
+
+	private final RLayoutPane layoutPane;
+
+	private final AtomicIntegerArray windows = new AtomicIntegerArray(
+			AUTOHIDDEN + 1);
+
+	final AtomicLong listenerDispatches = new AtomicLong();
+
+	final AtomicLong prefetches = new AtomicLong();
+
+	final AtomicLong prefetchHits = new AtomicLong();
+
+	final AtomicLong prefetchMisses = new AtomicLong();
+
+	final AtomicLong wastedPrefetches = new AtomicLong();
+
+	private final AtomicLong saves = new AtomicLong();
+
+	private final AtomicLong loads = new AtomicLong();
+
+	private final AtomicLongArray saveTimes = new AtomicLongArray(
+			HISTOGRAM_BOUNDS.length + 1);
+
+	private final AtomicLongArray loadTimes = new AtomicLongArray(
+			HISTOGRAM_BOUNDS.length + 1);
+
+	// counters of other objects at the last reset
+	private volatile long layoutHintUpdatesBase, poolHitsBase, creationsBase;
+
+	RLayoutMetrics(RLayoutPane layoutPane) {
+		this.layoutPane = layoutPane;
+	}
+
+	// recording
+	// ---------------------------------------------------------------------------------
+
+	void windowOpened(RLayoutWindow window) {
+		windows.incrementAndGet(typeOf(window));
+	}
+
+	void windowClosed(RLayoutWindow window) {
+		windows.decrementAndGet(typeOf(window));
+	}
+
+	private static int typeOf(RLayoutWindow window) {
+		return LayoutManager.TYPE_DOCUMENT.equals(window.getType()) ? DOCUMENT
+				: DOCKABLE;
+	}
+
+	/**
+	 * Adds <code>delta</code> to the shown windows and, for a Dockable
+	 * Window, to the windows in its dock state. Called with 1 after a window
+	 * was shown or changed its dock state while shown, with -1 before it is
+	 * hidden or changes its dock state.
+	 */
+	void windowShown(RLayoutWindow window, int delta) {
+		windows.addAndGet(SHOWN, delta);
+		if (LayoutManager.TYPE_DOCKABLE.equals(window.getType())) {
+			String state = ((RDockableWindow) window).getDockState();
+			if (DockableWindow.DOCK_STATE_FLOATED.equals(state)) {
+				windows.addAndGet(FLOATING, delta);
+			} else if (DockableWindow.DOCK_STATE_AUTOHIDDEN.equals(state)) {
+				windows.addAndGet(AUTOHIDDEN, delta);
+			} else {
+				windows.addAndGet(DOCKED, delta);
+			}
+		}
+	}
+
+	void layoutSaved(long nanos) {
+		saves.incrementAndGet();
+		saveTimes.incrementAndGet(bucket(nanos));
+	}
+
+	void layoutLoaded(long nanos) {
+		loads.incrementAndGet();
+		loadTimes.incrementAndGet(bucket(nanos));
+	}
+
+	static int bucket(long nanos) {
+		long millis = nanos / 1000000;
+		int i = 0;
+		while (i < HISTOGRAM_BOUNDS.length && millis > HISTOGRAM_BOUNDS[i]) {
+			i++;
+		}
+		return i;
+	}
+
+	// LayoutMetrics
+	// -----------------------------------------------------------------------------
+
+	public int getDockableWindowCount() {
+		return windows.get(DOCKABLE);
+	}
+
+	public int getDocumentWindowCount() {
+		return windows.get(DOCUMENT);
+	}
+
+	public int getShownWindowCount() {
+		return windows.get(SHOWN);
+	}
+
+	public int getDockedWindowCount() {
+		return windows.get(DOCKED);
+	}
+
+	public int getFloatingWindowCount() {
+		return windows.get(FLOATING);
+	}
+
+	public int getAutoHiddenWindowCount() {
+		return windows.get(AUTOHIDDEN);
+	}
+
+	public int getComponentCount() {
+		return countComponents()[0];
+	}
+
+	public int getPaneTreeDepth() {
+		return countComponents()[1];
+	}
+
+	public Map getTitlePaintTimes() {
+		return RTitledPane.getPaintTimes();
+	}
+
+	public int getFloatingFrameCount() {
+		return layoutPane.getOpenFloatingFrameCount();
+	}
+
+	public long getFloatingFramePoolHits() {
+		return layoutPane.getFloatingFramePoolHits() - poolHitsBase;
+	}
+
+	public long getFloatingFrameCreations() {
+		return layoutPane.getFloatingFrameCreations() - creationsBase;
+	}
+
+	public long getListenerDispatchCount() {
+		return listenerDispatches.get();
+	}
+
+	public long getLayoutHintUpdateCount() {
+		return layoutPane.getLayoutContainer().layoutHintUpdates.get()
+				- layoutHintUpdatesBase;
+	}
+
+	public long getPrefetchCount() {
+		return prefetches.get();
+	}
+
+	public long getPrefetchHitCount() {
+		return prefetchHits.get();
+	}
+
+	public long getPrefetchMissCount() {
+		return prefetchMisses.get();
+	}
+
+	public long getWastedPrefetchCount() {
+		return wastedPrefetches.get();
+	}
+
+	public long getLayoutSaveCount() {
+		return saves.get();
+	}
+
+	public long getLayoutLoadCount() {
+		return loads.get();
+	}
+
+	public long[] getLayoutSaveTimes() {
+		return toArray(saveTimes);
+	}
+
+	public long[] getLayoutLoadTimes() {
+		return toArray(loadTimes);
+	}
+
+	public long[] getHistogramBounds() {
+		return (long[]) HISTOGRAM_BOUNDS.clone();
+	}
+
+	public void resetCounters() {
+		listenerDispatches.set(0);
+		prefetches.set(0);
+		prefetchHits.set(0);
+		prefetchMisses.set(0);
+		wastedPrefetches.set(0);
+		saves.set(0);
+		loads.set(0);
+		for (int i = 0; i < saveTimes.length(); i++) {
+			saveTimes.set(i, 0);
+			loadTimes.set(i, 0);
+		}
+		RTitledPane.resetPaintTimes();
+		layoutHintUpdatesBase = layoutPane.getLayoutContainer()
+				.layoutHintUpdates.get();
+		poolHitsBase = layoutPane.getFloatingFramePoolHits();
+		creationsBase = layoutPane.getFloatingFrameCreations();
+	}
+
+	private static long[] toArray(AtomicLongArray histogram) {
+		long[] result = new long[histogram.length()];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = histogram.get(i);
+		}
+		return result;
+	}
+
+	// component tree
+	// ----------------------------------------------------------------------------
+
+	/**
+	 * Returns the number of components of the Layout Pane and the floating
+	 * frames and the maximum depth. The tree is walked on the event dispatch
+	 * thread; other threads wait for it.
+	 */
+	private int[] countComponents() {
+		final int[] tree = new int[2];
+		Runnable count = new Runnable() {
+			public void run() {
+				countComponents(layoutPane, 1, tree);
+				Set frames = new HashSet(layoutPane.floatingWindows.values());
+				for (Iterator i = frames.iterator(); i.hasNext();) {
+					countComponents((Component) i.next(), 1, tree);
+				}
+			}
+		};
+		if (SwingUtilities.isEventDispatchThread()) {
+			count.run();
+		} else {
+			try {
+				SwingUtilities.invokeAndWait(count);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (InvocationTargetException e) {
+				throw new LayoutManagerException(e.getCause());
+			}
+		}
+		return tree;
+	}
+
+	/**
+	 * Adds the number of components to <code>tree[0]</code> and raises the
+	 * maximum depth in <code>tree[1]</code>.
+	 */
+	private static void countComponents(Component c, int depth, int[] tree) {
+		tree[0]++;
+		tree[1] = Math.max(tree[1], depth);
+		if (c instanceof Container) {
+			Component[] children = ((Container) c).getComponents();
+			for (int i = 0; i < children.length; i++) {
+				countComponents(children[i], depth + 1, tree);
+			}
+		}
+	}
+}
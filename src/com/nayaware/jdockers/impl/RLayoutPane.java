@@ -4,8 +4,13 @@ import java.awt.BorderLayout;
 import java.awt.Component;
 import java.awt.Container;
 import java.awt.Dimension;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.Insets;
 import java.awt.Rectangle;
+import java.awt.RenderingHints;
+import java.awt.Window;
+import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -14,10 +19,14 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.swing.JLayeredPane;
+import javax.swing.SwingUtilities;
 
 import com.nayaware.jdockers.DockableWindow;
+import com.nayaware.jdockers.LayoutEventRecorder;
 import com.nayaware.jdockers.LayoutManager;
 import com.nayaware.jdockers.LayoutWindow;
 
@@ -69,6 +78,9 @@ public class RLayoutPane extends JLayeredPane {
 		setName("layoutPane");
 		setLayout(new AutoHideBorderLayout());
 
+		// load the pane icons while the application builds its windows
+		RSwing.prefetchIcons();
+
 		new RGlobalEventListener(this);
 
 		autoHideItemContainer[TOP] = new RAutoHideItemContainer(TOP);
@@ -100,6 +112,7 @@ public class RLayoutPane extends JLayeredPane {
 	 * Called from the Layout Manager.
 	 */
 	public void addWindow(RLayoutWindow window) {
+		long start = recorder != null ? System.nanoTime() : 0;
 		if (window instanceof RDocumentWindow) {
 			addDocumentWindow((RDocumentWindow) window);
 		} else if (window instanceof RDockableWindow) {
@@ -107,6 +120,10 @@ public class RLayoutPane extends JLayeredPane {
 		} else {
 			throw new Error("neither document nor dockable window: " + window);
 		}
+		if (recorder != null) {
+			recorder.paneTreeChanged("add", window, start,
+					System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -115,6 +132,7 @@ public class RLayoutPane extends JLayeredPane {
 	 * Layout Manager and internally when a window changes its state.
 	 */
 	public void removeWindow(RLayoutWindow window) {
+		long start = recorder != null ? System.nanoTime() : 0;
 		if (window instanceof RDocumentWindow) {
 			removeDocumentWindow((RDocumentWindow) window);
 		} else if (window instanceof RDockableWindow) {
@@ -122,6 +140,10 @@ public class RLayoutPane extends JLayeredPane {
 		} else {
 			throw new Error("neither document nor dockable window: " + window);
 		}
+		if (recorder != null) {
+			recorder.paneTreeChanged("remove", window, start,
+					System.nanoTime() - start);
+		}
 	}
 
 	/**
@@ -166,7 +188,7 @@ public class RLayoutPane extends JLayeredPane {
 			return;
 		}
 		if (DockableWindow.DOCK_STATE_FLOATED.equals(window.getDockState())) {
-			RFloatingFrame ff = new RFloatingFrame(this);
+			RFloatingFrame ff = createFloatingFrame();
 			ff.addWindow(window);
 			ff.setAbsoluteBounds(window.getBounds());
 			ff.show();
@@ -278,41 +300,52 @@ public class RLayoutPane extends JLayeredPane {
 	 * Floating Frame!
 	 */
 	void requestAutoHide(RWindowPane pane, RDockableWindow window) {
-		// deactive window before autohiding it
-		RLayoutWindow activeWindow = getActiveWindow();
-		if (activeWindow == window
-				|| pane.findWindowPane((RDockableWindow) activeWindow) != null) {
-			deactivateLastWindow(null);
-		}
-		// determine position of autohide item
-		int position = pane.getParentTiledContainer().getPosition();
-		// create item: default dimension is current size, then remove window
-		// and/or pane
-		RAutoHideItem item;
-		if (window != null && pane.getWindowCount() > 1) {
-			if (window.autohidePaneSize == null) {
-				window.autohidePaneSize = pane.getSize();
+		RLatencyMonitor.begin("requestAutoHide", this);
+		RDockableWindow changed = window != null ? window : pane
+				.getSelectedWindow();
+		String state = changed != null ? changed.getDockState() : null;
+		long start = recorder != null ? System.nanoTime() : 0;
+		try {
+			// deactive window before autohiding it
+			RLayoutWindow activeWindow = getActiveWindow();
+			if (activeWindow == window
+					|| pane.findWindowPane((RDockableWindow) activeWindow)
+							!= null) {
+				deactivateLastWindow(null);
 			}
-			getLayoutContainer().setupLayoutHint(window);
-			pane.removeWindow(window);
-			item = new RAutoHideItem(window);
-		} else {
-			RDockableWindow[] windows = pane.getWindows();
-			for (int i = 0; i < windows.length; i++) {
-				if (windows[i].autohidePaneSize == null) {
-					Dimension size = pane.getSize();
-					if (size.width > 0 && size.height > 0) {
-						windows[i].autohidePaneSize = size;
+			// determine position of autohide item
+			int position = pane.getParentTiledContainer().getPosition();
+			// create item: default dimension is current size, then remove
+			// window and/or pane
+			RAutoHideItem item;
+			if (window != null && pane.getWindowCount() > 1) {
+				if (window.autohidePaneSize == null) {
+					window.autohidePaneSize = pane.getSize();
+				}
+				getLayoutContainer().setupLayoutHint(window);
+				pane.removeWindow(window);
+				item = new RAutoHideItem(window);
+			} else {
+				RDockableWindow[] windows = pane.getWindows();
+				for (int i = 0; i < windows.length; i++) {
+					if (windows[i].autohidePaneSize == null) {
+						Dimension size = pane.getSize();
+						if (size.width > 0 && size.height > 0) {
+							windows[i].autohidePaneSize = size;
+						}
 					}
+					getLayoutContainer().setupLayoutHint(windows[i]);
 				}
-				getLayoutContainer().setupLayoutHint(windows[i]);
+				item = new RAutoHideItem(windows, pane.getSelectedWindow());
+				pane.removeFromParent();
 			}
-			item = new RAutoHideItem(windows, pane.getSelectedWindow());
-			pane.removeFromParent();
+			// add initialized item and make it visible
+			autoHideItemContainer[position].add(item);
+			validate();
+		} finally {
+			recordDockState(changed, state, start);
+			RLatencyMonitor.end();
 		}
-		// add initialized item and make it visible
-		autoHideItemContainer[position].add(item);
-		validate();
 	}
 
 	// ---------------------------------------------------------------------------------------
@@ -323,29 +356,38 @@ public class RLayoutPane extends JLayeredPane {
 	 * the Layout Pane first.
 	 */
 	public void requestFloat(RDockableWindow window) {
-		RFloatingFrame ff = (RFloatingFrame) floatingWindows.get(window);
-		if (ff != null) {
-			ff.toFront();
-		} else {
-			getLayoutContainer().setupLayoutHint(window);
-			if (window.isVisible()) {
-				// if ahi, remove item
-				// if dp, remove it
-				RWindowPane pane = findWindowPane(window);
-				if (pane instanceof RCombinedAutoHidePane) {
-					removeAutoHideItem(((RCombinedAutoHidePane) pane).item);
-				} else if (pane instanceof RCombinedDockablePane) {
-					((RCombinedDockablePane) pane).removeWindowOrPane(window);
+		RLatencyMonitor.begin("requestFloat", this);
+		String state = window.getDockState();
+		long start = recorder != null ? System.nanoTime() : 0;
+		try {
+			RFloatingFrame ff = (RFloatingFrame) floatingWindows.get(window);
+			if (ff != null) {
+				ff.toFront();
+			} else {
+				getLayoutContainer().setupLayoutHint(window);
+				if (window.isVisible()) {
+					// if ahi, remove item
+					// if dp, remove it
+					RWindowPane pane = findWindowPane(window);
+					if (pane instanceof RCombinedAutoHidePane) {
+						removeAutoHideItem(((RCombinedAutoHidePane) pane).item);
+					} else if (pane instanceof RCombinedDockablePane) {
+						((RCombinedDockablePane) pane)
+								.removeWindowOrPane(window);
+					} else {
+						throw new Error(); // should not happen
+					}
 				} else {
-					throw new Error(); // should not happen
+					window.setVisible(true);
 				}
-			} else {
-				window.setVisible(true);
+				ff = createFloatingFrame();
+				ff.addWindow(window);
+				ff.setAbsoluteBounds(window.getBounds());
+				ff.show();
 			}
-			ff = new RFloatingFrame(this);
-			ff.addWindow(window);
-			ff.setAbsoluteBounds(window.getBounds());
-			ff.show();
+		} finally {
+			recordDockState(window, state, start);
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -355,15 +397,23 @@ public class RLayoutPane extends JLayeredPane {
 	 */
 
 	void floatWindows(RDockableWindow[] windows, Rectangle bounds) {
-		RFloatingFrame ff = new RFloatingFrame(this);
-		ff.addWindows(windows);
-		if (bounds != null) {
-			ff.setBounds(bounds);
-			ff.show();
-			ff.setBounds(bounds); // update layout hint
-		} else {
-			ff.setAbsoluteBounds(windows[0].getBounds());
-			ff.show();
+		RLatencyMonitor.begin("floatWindows", this);
+		String state = windows[0].getDockState();
+		long start = recorder != null ? System.nanoTime() : 0;
+		try {
+			RFloatingFrame ff = createFloatingFrame();
+			ff.addWindows(windows);
+			if (bounds != null) {
+				ff.setBounds(bounds);
+				ff.show();
+				ff.setBounds(bounds); // update layout hint
+			} else {
+				ff.setAbsoluteBounds(windows[0].getBounds());
+				ff.show();
+			}
+		} finally {
+			recordDockState(windows[0], state, start);
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -373,24 +423,46 @@ public class RLayoutPane extends JLayeredPane {
 	 * Redocks the window if not already docked.
 	 */
 	void requestDock(RDockableWindow window) {
-		RFloatingFrame ff = (RFloatingFrame) floatingWindows.get(window);
-		if (ff != null) {
-			window.setBounds(ff.pane.getAbsoluteBounds());
-			ff.removeWindow(window);
-			if (ff.getWindowCount() == 0) {
-				ff.dispose();
+		RLatencyMonitor.begin("requestDock", this);
+		String state = window.getDockState();
+		long start = recorder != null ? System.nanoTime() : 0;
+		try {
+			RFloatingFrame ff = (RFloatingFrame) floatingWindows.get(window);
+			if (ff != null) {
+				window.setBounds(ff.pane.getAbsoluteBounds());
+				ff.removeWindow(window);
+				if (ff.getWindowCount() == 0) {
+					ff.dispose();
+				}
+				getLayoutContainer().redockWindows(
+						new RDockableWindow[] { window }, window);
+				return;
 			}
-			getLayoutContainer().redockWindows(
-					new RDockableWindow[] { window }, window);
-			return;
+			RWindowPane pane = findWindowPane(window);
+			if (pane instanceof RCombinedAutoHidePane) {
+				int position = ((RCombinedAutoHidePane) pane).item
+						.getPosition();
+				removeAutoHideItem(((RCombinedAutoHidePane) pane).item);
+				getLayoutContainer().redockWindows(position, pane.getWindows(),
+						pane.getSelectedWindow());
+				return;
+			}
+		} finally {
+			recordDockState(window, state, start);
+			RLatencyMonitor.end();
 		}
-		RWindowPane pane = findWindowPane(window);
-		if (pane instanceof RCombinedAutoHidePane) {
-			int position = ((RCombinedAutoHidePane) pane).item.getPosition();
-			removeAutoHideItem(((RCombinedAutoHidePane) pane).item);
-			getLayoutContainer().redockWindows(position, pane.getWindows(),
-					pane.getSelectedWindow());
-			return;
+	}
+
+	/*
+	 * Records the change of the window's dock state if an event recorder is
+	 * set and the state changed.
+	 */
+	private void recordDockState(RDockableWindow window, String oldState,
+			long start) {
+		if (recorder != null && window != null
+				&& !window.getDockState().equals(oldState)) {
+			recorder.dockStateChanged(window, oldState, window.getDockState(),
+					start, System.nanoTime() - start);
 		}
 	}
 
@@ -400,29 +472,36 @@ public class RLayoutPane extends JLayeredPane {
 	 * Restore layout from specified pile.
 	 */
 	void restoreLayout(RMemento memento, RLayoutManager manager) {
-		// Clean up layout window container...
-		List windows = manager.getAllShownDockedWindows();
-		for (Iterator i = windows.iterator(); i.hasNext();) {
-			removeWindow((RDockableWindow) i.next());
-		}
+		RLatencyMonitor.begin("restoreLayout", this);
+		try {
+			// Clean up layout window container...
+			List windows = manager.getAllShownDockedWindows();
+			for (Iterator i = windows.iterator(); i.hasNext();) {
+				removeWindow((RDockableWindow) i.next());
+			}
 
-		List shownWindows = new ArrayList();
-		restoreLayoutHints(memento, manager);
-		restoreLayoutFloatingWindows(memento, manager, windows, shownWindows);
-		restoreLayoutAutohiddenWindows(memento, manager, windows, shownWindows);
-		restoreLayoutDockedWindows(memento, manager, windows, shownWindows);
-
-		// set active window
-		RDockableWindow window = manager.findRWindow(memento
-				.getString("activeWindow"));
-		if (window != null) {
-			manager.activateLayoutWindow(window);
-		}
-		validate();
-		getLayoutContainer().updateLayoutHints();
+			List shownWindows = new ArrayList();
+			restoreLayoutHints(memento, manager);
+			restoreLayoutFloatingWindows(memento, manager, windows,
+					shownWindows);
+			restoreLayoutAutohiddenWindows(memento, manager, windows,
+					shownWindows);
+			restoreLayoutDockedWindows(memento, manager, windows, shownWindows);
+
+			// set active window
+			RDockableWindow window = manager.findRWindow(memento
+					.getString("activeWindow"));
+			if (window != null) {
+				manager.activateLayoutWindow(window);
+			}
+			validate();
+			getLayoutContainer().updateLayoutHints();
 
-		for (Iterator i = shownWindows.iterator(); i.hasNext();) {
-			manager.fireWindowShown((RLayoutWindow) i.next());
+			for (Iterator i = shownWindows.iterator(); i.hasNext();) {
+				manager.fireWindowShown((RLayoutWindow) i.next());
+			}
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -454,7 +533,7 @@ public class RLayoutPane extends JLayeredPane {
 				List windows = getWindows(pane, manager, openWindows,
 						shownWindows);
 				if (windows.size() > 0) {
-					RFloatingFrame ff = new RFloatingFrame(this);
+					RFloatingFrame ff = createFloatingFrame();
 					for (Iterator j = windows.iterator(); j.hasNext();) {
 						RDockableWindow w = (RDockableWindow) j.next();
 						ff.addWindow(w);
@@ -695,6 +774,15 @@ public class RLayoutPane extends JLayeredPane {
 		}
 	}
 
+	/**
+	 * Removes all references to a closed window.
+	 */
+	void disposeWindow(RLayoutWindow window) {
+		lastActiveWindowList.remove(window);
+		floatingWindows.remove(window);
+		window.dispose();
+	}
+
 	RLayoutWindow getActiveWindow() {
 		if (lastActiveWindowList.isEmpty()) {
 			return null;
@@ -708,18 +796,29 @@ public class RLayoutPane extends JLayeredPane {
 	 * Activates an Auto Hide Item displaying the associated Auto Hide Pane.
 	 */
 	void setActiveAutoHideItem(RAutoHideItem item) {
-		if (activeItem != item) {
-			if (activeItem != null) {
-				remove(activeItem.autoHidePane);
-				repaint();
-			}
-			activeItem = item;
-			if (activeItem != null) {
-				setLayer(activeItem.autoHidePane, 100);
-				add(activeItem.autoHidePane, AutoHideBorderLayout.AUTOHIDE, 0);
-				activeItem.autoHidePane.repaint();
+		RLatencyMonitor.begin("setActiveAutoHideItem", this);
+		try {
+			if (activeItem != item) {
+				long start = recorder != null ? System.nanoTime() : 0;
+				if (activeItem != null) {
+					remove(activeItem.autoHidePane);
+					repaint();
+					recordAutoHidePane(activeItem, false, start);
+				}
+				activeItem = item;
+				if (activeItem != null) {
+					setLayer(activeItem.autoHidePane, 100);
+					add(activeItem.autoHidePane, AutoHideBorderLayout.AUTOHIDE,
+							0);
+					activeItem.autoHidePane.repaint();
+				}
+				validate();
+				if (activeItem != null) {
+					recordAutoHidePane(activeItem, true, start);
+				}
 			}
-			validate();
+		} finally {
+			RLatencyMonitor.end();
 		}
 	}
 
@@ -728,12 +827,30 @@ public class RLayoutPane extends JLayeredPane {
 	 * there is no newer Auto Hide Item active.
 	 */
 	void resetActiveAutoHideItem(RAutoHideItem item) {
+		long start = recorder != null ? System.nanoTime() : 0;
+		RAutoHideItem hidden = null;
 		if (activeItem == item) {
 			remove(activeItem.autoHidePane);
 			repaint();
+			hidden = activeItem;
 			activeItem = null;
 		}
 		validate();
+		if (hidden != null) {
+			recordAutoHidePane(hidden, false, start);
+		}
+	}
+
+	/*
+	 * Records showing or hiding the item's pane if an event recorder is set.
+	 */
+	private void recordAutoHidePane(RAutoHideItem item, boolean shown,
+			long start) {
+		if (recorder != null && item.autoHidePane != null) {
+			recorder.autohidePaneChanged(item.autoHidePane
+					.getSelectedWindow(), shown, start, System.nanoTime()
+					- start);
+		}
 	}
 
 	// ---------------------------------------------------------------------------------------
@@ -742,6 +859,191 @@ public class RLayoutPane extends JLayeredPane {
 
 	Map floatingWindows = new HashMap();
 
+	/**
+	 * How Floating Frames are resized, see
+	 * {@link LayoutManager#setFloatingFrameResizeMode(String)}.
+	 */
+	String floatingFrameResizeMode = LayoutManager.RESIZE_MODE_THROTTLED;
+
+	/**
+	 * Receives timed events or <code>null</code>, see
+	 * {@link LayoutManager#setEventRecorder(LayoutEventRecorder)}.
+	 */
+	LayoutEventRecorder recorder;
+
+	// layout snapshot
+	// -----------------------------------------------------------------------------
+
+	/**
+	 * Image painted over the pane while a layout is restored or
+	 * <code>null</code>.
+	 */
+	private BufferedImage snapshot;
+
+	/**
+	 * Shows the snapshot of a saved layout as a placeholder. If the pane is
+	 * showing, it is painted at once because the restore of the layout will
+	 * block the event dispatch thread.
+	 */
+	void showSnapshot(BufferedImage image) {
+		snapshot = image;
+		if (image != null && isShowing()) {
+			paintImmediately(0, 0, getWidth(), getHeight());
+		}
+	}
+
+	/**
+	 * Removes the placeholder after the restored layout was validated, with
+	 * the next events, so that the pane doesn't flash empty in between.
+	 */
+	void hideSnapshot() {
+		if (snapshot != null) {
+			SwingUtilities.invokeLater(new Runnable() {
+				public void run() {
+					snapshot = null;
+					repaint();
+				}
+			});
+		}
+	}
+
+	public void paint(Graphics g) {
+		super.paint(g);
+		BufferedImage image = snapshot;
+		if (image != null) {
+			((Graphics2D) g).setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(image, 0, 0, getWidth(), getHeight(), null);
+		}
+	}
+
+	// floating frame pool
+	// -----------------------------------------------------------------------
+
+	/**
+	 * Maximum number of unused Floating Frames kept for reuse.
+	 */
+	static final int MAX_POOLED_FLOATING_FRAMES = 4;
+
+	/**
+	 * Hidden but not disposed Floating Frames which can be reused so that
+	 * floating a window doesn't need to create a new native dialog each time.
+	 */
+	private LinkedList floatingFramePool = new LinkedList();
+
+	// read by the Layout Manager's metrics from any thread
+	private final AtomicLong floatingFramePoolHits = new AtomicLong();
+
+	private final AtomicLong floatingFrameCreations = new AtomicLong();
+
+	private final AtomicInteger openFloatingFrames = new AtomicInteger();
+
+	private long floatingFrameCreationTime;
+
+	/**
+	 * Returns an empty Floating Frame, either a pooled one or a new one.
+	 */
+	RFloatingFrame createFloatingFrame() {
+		Window owner = SwingUtilities.getWindowAncestor(this);
+		while (!floatingFramePool.isEmpty()) {
+			RFloatingFrame ff = (RFloatingFrame) floatingFramePool
+					.removeFirst();
+			if (ff.getOwner() == owner) {
+				floatingFramePoolHits.incrementAndGet();
+				return opened(ff);
+			}
+			ff.destroy();
+		}
+		long start = System.nanoTime();
+		RFloatingFrame ff = new RFloatingFrame(this);
+		floatingFrameCreationTime += System.nanoTime() - start;
+		floatingFrameCreations.incrementAndGet();
+		return opened(ff);
+	}
+
+	private RFloatingFrame opened(RFloatingFrame ff) {
+		ff.open = true;
+		openFloatingFrames.incrementAndGet();
+		return ff;
+	}
+
+	/**
+	 * Called when a Floating Frame returned by createFloatingFrame() is
+	 * disposed.
+	 */
+	void floatingFrameClosed(RFloatingFrame ff) {
+		if (ff.open) {
+			ff.open = false;
+			openFloatingFrames.decrementAndGet();
+		}
+	}
+
+	/**
+	 * Hides the specified empty Floating Frame and keeps it for reuse. Returns
+	 * <code>false</code> if the pool is full or the frame doesn't belong to
+	 * this pane's window anymore, so the frame must be disposed.
+	 */
+	boolean releaseFloatingFrame(RFloatingFrame ff) {
+		if (floatingFramePool.contains(ff)) {
+			return true;
+		}
+		if (floatingFramePool.size() >= MAX_POOLED_FLOATING_FRAMES
+				|| ff.getOwner() != SwingUtilities.getWindowAncestor(this)) {
+			return false;
+		}
+		ff.setVisible(false);
+		floatingFramePool.addLast(ff);
+		return true;
+	}
+
+	/**
+	 * Disposes all pooled Floating Frames.
+	 */
+	void disposeFloatingFramePool() {
+		while (!floatingFramePool.isEmpty()) {
+			((RFloatingFrame) floatingFramePool.removeFirst()).destroy();
+		}
+	}
+
+	/**
+	 * Returns the number of Floating Frames taken from the pool.
+	 */
+	long getFloatingFramePoolHits() {
+		return floatingFramePoolHits.get();
+	}
+
+	/**
+	 * Returns the number of newly created Floating Frames.
+	 */
+	long getFloatingFrameCreations() {
+		return floatingFrameCreations.get();
+	}
+
+	/**
+	 * Returns the number of Floating Frames in use.
+	 */
+	int getOpenFloatingFrameCount() {
+		return openFloatingFrames.get();
+	}
+
+	/**
+	 * Returns the total time in nanoseconds spent creating Floating Frames.
+	 */
+	long getFloatingFrameCreationTime() {
+		return floatingFrameCreationTime;
+	}
+
+	/*
+	 * Pooled frames are owned by the old window and cannot be reused once the
+	 * pane is removed from it.
+	 */
+	public void removeNotify() {
+		disposeFloatingFramePool();
+		super.removeNotify();
+	}
+
+	// ---------------------------------------------------------------------------------------
+
 	/**
 	 * Activates a Dockable Window or Document Window. Does nothing if the
 	 * window is already active. Otherwise, set window as new active window and
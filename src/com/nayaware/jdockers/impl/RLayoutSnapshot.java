@@ -0,0 +1,131 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.Component;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferUShort;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * This class writes and reads the snapshot image of a Layout Pane. The image
+ * is downscaled to at most {@link #MAX_WIDTH} pixels and stored raw, in the
+ * 16 bit RGB format of <code>BufferedImage.TYPE_USHORT_565_RGB</code>, after a
+ * header with a magic number and the size. Reading is a single bulk copy into
+ * the image's data buffer without any decoding, so the snapshot can be shown
+ * long before an image decoder would have been loaded.
+ */
+class RLayoutSnapshot {
+
+	/**
+	 * "JDSN", followed by the format version.
+	 */
+	static final int MAGIC = 0x4A44534E, VERSION = 1;
+
+	/**
+	 * Maximum width of the stored image.
+	 */
+	static final int MAX_WIDTH = 640;
+
+	/**
+	 * Suffix appended to the name of the layout file.
+	 */
+	static final String SUFFIX = ".snapshot";
+
+	private RLayoutSnapshot() {
+	}
+
+	/**
+	 * Returns the snapshot file stored alongside the specified layout file.
+	 */
+	static File fileFor(File layoutFile) {
+		return new File(layoutFile.getPath() + SUFFIX);
+	}
+
+	/**
+	 * Paints the component downscaled and writes the image to the file. If the
+	 * component has no size, an existing file is deleted instead, so that no
+	 * stale snapshot is shown.
+	 */
+	static void write(Component c, File file) throws IOException {
+		int width = c.getWidth(), height = c.getHeight();
+		if (width <= 0 || height <= 0) {
+			file.delete();
+			return;
+		}
+		double scale = Math.min(1d, (double) MAX_WIDTH / width);
+		int w = Math.max(1, (int) (width * scale));
+		int h = Math.max(1, (int) (height * scale));
+		BufferedImage image = new BufferedImage(w, h,
+				BufferedImage.TYPE_USHORT_565_RGB);
+		Graphics2D g = image.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+					RenderingHints.VALUE_ANTIALIAS_ON);
+			g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING,
+					RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+			g.scale(scale, scale);
+			c.paint(g);
+		} finally {
+			g.dispose();
+		}
+		short[] pixels = ((DataBufferUShort) image.getRaster()
+				.getDataBuffer()).getData();
+		ByteBuffer buffer = ByteBuffer.allocate(pixels.length * 2);
+		buffer.asShortBuffer().put(pixels);
+
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(w);
+			out.writeInt(h);
+			out.write(buffer.array());
+		} finally {
+			out.close();
+		}
+	}
+
+	/**
+	 * Reads the image from the file.
+	 *
+	 * @return the image or <code>null</code> if there's no file or it isn't
+	 *         a snapshot of this version
+	 */
+	static BufferedImage read(File file) throws IOException {
+		if (!file.isFile()) {
+			return null;
+		}
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file)));
+		try {
+			if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+				return null;
+			}
+			int w = in.readInt(), h = in.readInt();
+			if (w <= 0 || w > MAX_WIDTH || h <= 0
+					|| (long) w * h * 2 != file.length() - 16) {
+				return null;
+			}
+			byte[] bytes = new byte[w * h * 2];
+			in.readFully(bytes);
+			BufferedImage image = new BufferedImage(w, h,
+					BufferedImage.TYPE_USHORT_565_RGB);
+			short[] pixels = ((DataBufferUShort) image.getRaster()
+					.getDataBuffer()).getData();
+			ByteBuffer.wrap(bytes).asShortBuffer().get(pixels);
+			return image;
+		} finally {
+			in.close();
+		}
+	}
+}
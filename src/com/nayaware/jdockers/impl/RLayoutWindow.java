@@ -6,6 +6,8 @@ import java.awt.Font;
 import java.awt.Rectangle;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.Map;
 import java.util.Vector;
 
 import javax.swing.ImageIcon;
@@ -31,12 +33,13 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 
 	/**
 	 * A ComponentData instance stores the component along with its tabName and
-	 * icon.
+	 * icon and its current index in the components array.
 	 */
 	private static class ComponentData {
 		final JComponent component;
 		final String tabName;
 		final ImageIcon icon;
+		int index;
 
 		ComponentData(JComponent component, String tabName, ImageIcon icon) {
 			this.component = component;
@@ -61,12 +64,24 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 
 	private int count;
 
+	/**
+	 * Maps each tabName to the ComponentData of the first component added with
+	 * that name, kept in sync with the components array.
+	 */
+	private Map componentsByName;
+
 	private int tabIndex;
 
 	private RLayoutManager manager;
 
 	private boolean visible;
 
+	/**
+	 * Whether the window is registered with the Layout Manager; volatile as
+	 * startup pipeline threads check it.
+	 */
+	private volatile boolean open;
+
 	private String type;
 
 	private JPanel windowComponent;
@@ -105,9 +120,8 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 		String oldTitle = this.title;
 		if (!equals(oldTitle, title)) {
 			this.title = title;
-			firePropertyChange("title", oldTitle, title);
-			if (tabName == null) {
-				firePropertyChange("titleForTab", oldTitle, title);
+			if (propertyChangeListeners != null) {
+				manager.getUpdateCoalescer().titleChanged(this, oldTitle);
 			}
 		}
 	}
@@ -120,7 +134,9 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 		ImageIcon oldIcon = this.icon;
 		if (!equals(oldIcon, icon)) {
 			this.icon = icon;
-			firePropertyChange("icon", oldIcon, icon);
+			if (propertyChangeListeners != null) {
+				manager.getUpdateCoalescer().iconChanged(this, oldIcon);
+			}
 		}
 	}
 
@@ -164,18 +180,36 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 	// property change support
 	// -------------------------------------------------------------------
 
-	protected Vector propertyChangeListeners = new Vector(1);
+	/*
+	 * The "title", "titleForTab" and "icon" events are not fired at once but
+	 * coalesced by the Layout Manager's RUpdateCoalescer and fired once per
+	 * frame, so that windows which update their title very often don't relayout
+	 * their pane for each change. The getters return the new value at once.
+	 */
+
+	/**
+	 * The listeners, <code>null</code> until the first one is added.
+	 */
+	protected Vector propertyChangeListeners;
 
 	public void addPropertyChangeListener(PropertyChangeListener listener) {
+		if (propertyChangeListeners == null) {
+			propertyChangeListeners = new Vector(1);
+		}
 		propertyChangeListeners.add(listener);
 	}
 
 	public void removePropertyChangeListener(PropertyChangeListener listener) {
-		propertyChangeListeners.remove(listener);
+		if (propertyChangeListeners != null) {
+			propertyChangeListeners.remove(listener);
+		}
 	}
 
 	protected void firePropertyChange(String propertyName, Object oldValue,
 			Object newValue) {
+		if (propertyChangeListeners == null) {
+			return;
+		}
 		Vector l = (Vector) propertyChangeListeners.clone();
 		int size = l.size();
 		if (size > 0) {
@@ -216,45 +250,102 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 		if (comp == null || tabName == null) {
 			throw new NullPointerException();
 		}
-		if (components == null) {
-			components = new ComponentData[1];
-		} else if (count == components.length) {
-			ComponentData[] ncomponents = new ComponentData[count + 3];
-			System.arraycopy(components, 0, ncomponents, 0, count);
-			components = ncomponents;
-		}
-		components[count++] = new ComponentData(comp, tabName, icon);
+		ensureCapacity(count + 1);
+		components[count] = new ComponentData(comp, tabName, icon);
+		register(count++);
 		if (tabIndex == -1) {
 			tabIndex = 0;
 		}
-		updateWindowComponent();
+		componentsAdded(count - 1);
 		fireComponentAdded(comp);
 		if (count == 1) {
 			fireComponentChanged(null);
 		}
 	}
 
+	/**
+	 * Adds a number of JComponents as the content of this window at once. This
+	 * is the same as calling {@link #addComponent(JComponent, String, ImageIcon)}
+	 * for each component but updates the window's tab strip only once.
+	 * <code>icons</code> may be <code>null</code> or contain
+	 * <code>null</code> elements.
+	 */
+	public void addComponents(JComponent[] comps, String[] tabNames,
+			ImageIcon[] icons) {
+		if (comps.length != tabNames.length
+				|| (icons != null && icons.length != comps.length)) {
+			throw new IllegalArgumentException();
+		}
+		for (int i = 0; i < comps.length; i++) {
+			if (comps[i] == null || tabNames[i] == null) {
+				throw new NullPointerException();
+			}
+		}
+		if (comps.length == 0) {
+			return;
+		}
+		int first = count;
+		ensureCapacity(count + comps.length);
+		for (int i = 0; i < comps.length; i++) {
+			components[count] = new ComponentData(comps[i], tabNames[i],
+					icons != null ? icons[i] : null);
+			register(count++);
+		}
+		if (tabIndex == -1) {
+			tabIndex = 0;
+		}
+		componentsAdded(first);
+		for (int i = 0; i < comps.length; i++) {
+			fireComponentAdded(comps[i]);
+		}
+		if (first == 0) {
+			fireComponentChanged(null);
+		}
+	}
+
+	/*
+	 * Makes sure the components array can hold at least the specified number
+	 * of components. The array grows by doubling so that adding many
+	 * components one by one doesn't copy the array again and again.
+	 */
+	private void ensureCapacity(int capacity) {
+		if (components == null) {
+			components = new ComponentData[Math.max(capacity, 1)];
+		} else if (capacity > components.length) {
+			ComponentData[] ncomponents = new ComponentData[Math.max(capacity,
+					components.length * 2)];
+			System.arraycopy(components, 0, ncomponents, 0, count);
+			components = ncomponents;
+		}
+	}
+
 	/**
 	 * Removes a JComponent from this window. The first component added with the
 	 * name "tabName" is removed (but names must be unique anyhow). The method
 	 * fails silently if the name is unknown or null.
 	 */
 	public void removeComponent(String tabName) {
-		for (int i = 0; i < count; i++) {
-			if (components[i].tabName.equals(tabName)) {
-				JComponent previousComponent = components[i].component;
-				System.arraycopy(components, i + 1, components, i, --count - i);
-				components[count] = null;
-				boolean removeCurrent = tabIndex == i;
-				if (tabIndex == count) {
-					--tabIndex;
+		int i = indexOf(tabName);
+		if (i != -1) {
+			JComponent previousComponent = components[i].component;
+			componentsByName.remove(tabName);
+			System.arraycopy(components, i + 1, components, i, --count - i);
+			components[count] = null;
+			for (int j = i; j < count; j++) {
+				components[j].index = j;
+				if (components[j].tabName.equals(tabName)
+						&& !componentsByName.containsKey(tabName)) {
+					componentsByName.put(tabName, components[j]);
 				}
-				updateWindowComponent();
-				fireComponentRemoved(previousComponent);
-				if (removeCurrent) {
-					fireComponentChanged(previousComponent);
-				}
-				return;
+			}
+			boolean removeCurrent = tabIndex == i;
+			if (tabIndex > i || tabIndex == count) {
+				--tabIndex;
+			}
+			componentRemoved(i);
+			fireComponentRemoved(previousComponent);
+			if (removeCurrent) {
+				fireComponentChanged(previousComponent);
 			}
 		}
 	}
@@ -267,6 +358,7 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 			JComponent previousComponent = getActiveComponent();
 			JComponent[] c = getAllComponents();
 			components = null;
+			componentsByName = null;
 			count = 0;
 			tabIndex = -1;
 			updateWindowComponent();
@@ -307,22 +399,89 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 	 * null. The first component with that name is shown.
 	 */
 	public void setActiveComponent(String tabName) {
-		for (int i = 0; i < count; i++) {
-			if (components[i].tabName.equals(tabName)) {
-				if (tabIndex != i) {
-					tabIndex = i;
-					if (count > 1 && windowComponent != null) {
-						((JTabbedPane) windowComponent.getComponent(0))
-								.setSelectedIndex(i);
-					}
-				}
-				return;
+		int i = indexOf(tabName);
+		if (i != -1 && tabIndex != i) {
+			tabIndex = i;
+			if (count > 1 && windowComponent != null) {
+				((JTabbedPane) windowComponent.getComponent(0))
+						.setSelectedIndex(i);
 			}
 		}
 	}
 
+	/*
+	 * Returns the index of the first component added with the specified
+	 * tabName or -1 if there's no such component or the name is null.
+	 */
+	private int indexOf(String tabName) {
+		if (tabName == null || componentsByName == null) {
+			return -1;
+		}
+		ComponentData data = (ComponentData) componentsByName.get(tabName);
+		return data == null ? -1 : data.index;
+	}
+
+	/*
+	 * Sets the index of the newly added component at the specified index and
+	 * makes it known by its tabName unless there's already a component with
+	 * the same name.
+	 */
+	private void register(int index) {
+		ComponentData data = components[index];
+		data.index = index;
+		if (componentsByName == null) {
+			componentsByName = new HashMap(4);
+		}
+		if (!componentsByName.containsKey(data.tabName)) {
+			componentsByName.put(data.tabName, data);
+		}
+	}
+
 	// -------------------------------------------------------------------------------------------
 
+	/*
+	 * Returns a rough estimate of the bytes used by this window, not counting
+	 * the components added by the application.
+	 */
+	long estimateSize() {
+		long size = RLayoutManager.OBJECT_SIZE + 16
+				* RLayoutManager.REFERENCE_SIZE;
+		size += RLayoutManager.sizeOf(name) + RLayoutManager.sizeOf(title)
+				+ RLayoutManager.sizeOf(tabName);
+		if (propertyChangeListeners != null) {
+			size += RLayoutManager.OBJECT_SIZE
+					+ RLayoutManager.sizeOfArray(propertyChangeListeners
+							.capacity());
+		}
+		if (components != null) {
+			size += RLayoutManager.sizeOfArray(components.length);
+			size += count
+					* (RLayoutManager.OBJECT_SIZE + 4 * RLayoutManager.REFERENCE_SIZE);
+		}
+		if (componentsByName != null) {
+			size += RLayoutManager.sizeOfMap(componentsByName.size());
+		}
+		if (windowComponent != null) {
+			size += RLayoutManager.PANEL_SIZE;
+		}
+		if (tabbedPane != null) {
+			size += RLayoutManager.TABBED_PANE_SIZE;
+		}
+		return size;
+	}
+
+	/*
+	 * Returns true if the window is opened and not yet closed. May be called
+	 * from any thread.
+	 */
+	boolean isOpen() {
+		return open;
+	}
+
+	void setOpen(boolean open) {
+		this.open = open;
+	}
+
 	/*
 	 * Returns true if the window is displayed in the layout pane.
 	 */
@@ -335,7 +494,15 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 	 * DOES NOT automatically display the window. This is a state marker only.
 	 */
 	void setVisible(boolean visible) {
-		this.visible = visible;
+		if (this.visible != visible) {
+			if (!visible) {
+				manager.getLayoutMetrics().windowShown(this, -1);
+			}
+			this.visible = visible;
+			if (visible) {
+				manager.getLayoutMetrics().windowShown(this, 1);
+			}
+		}
 	}
 
 	/*
@@ -409,6 +576,72 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 		}
 	}
 
+	/*
+	 * Updates the window's content after the components starting at the
+	 * specified index were appended. Only the new tabs are added to an
+	 * existing tabbed pane.
+	 */
+	void componentsAdded(int first) {
+		if (windowComponent == null) {
+			return;
+		}
+		if (tabbedPane == null || first < 2) {
+			updateWindowComponent();
+			return;
+		}
+		for (int i = first; i < count; i++) {
+			tabbedPane.addTab(components[i].tabName, components[i].icon,
+					components[i].component);
+		}
+		windowComponent.revalidate();
+		windowComponent.repaint();
+	}
+
+	/*
+	 * Updates the window's content after the component at the specified index
+	 * was removed. Only that tab is removed from an existing tabbed pane. No
+	 * change events are sent by the tabbed pane as removeComponent() takes care
+	 * of them.
+	 */
+	void componentRemoved(int index) {
+		if (windowComponent == null) {
+			return;
+		}
+		if (tabbedPane == null || count < 2) {
+			updateWindowComponent();
+			return;
+		}
+		tabbedPane.removeChangeListener(this);
+		tabbedPane.removeTabAt(index);
+		tabbedPane.setSelectedIndex(tabIndex);
+		tabbedPane.addChangeListener(this);
+		windowComponent.revalidate();
+		windowComponent.repaint();
+	}
+
+	/*
+	 * Detaches the window after it was closed so that nothing of the layout
+	 * system keeps it or its components reachable: the content panel is
+	 * emptied. The panes already removed themselves as property change
+	 * listeners when the window was hidden; listeners of the application are
+	 * kept. The window can be opened again, its content is then recreated.
+	 */
+	void dispose() {
+		if (windowComponent != null) {
+			if (tabbedPane != null) {
+				tabbedPane.removeChangeListener(this);
+				tabbedPane.removeAll();
+				tabbedPane = null;
+			}
+			windowComponent.removeAll();
+			windowComponent.putClientProperty("model", null);
+			if (windowComponent.getParent() != null) {
+				windowComponent.getParent().remove(windowComponent);
+			}
+			windowComponent = null;
+		}
+	}
+
 	/*
 	 * (Re)creates the window's content.
 	 */
@@ -472,38 +705,37 @@ public abstract class RLayoutWindow implements LayoutWindow, ChangeListener {
 	// ---------------------------------------------------------------------
 
 	void fireComponentAdded(JComponent previousComponent) {
-		Vector l = getLayoutManager().getListeners();
+		Vector l = manager.getListeners();
 		int size = l.size();
 		if (size > 0) {
-			RLayoutWindowEvent e = new RLayoutWindowEvent(getLayoutManager(),
-					this, previousComponent);
+			RLayoutWindowEvent e = new RLayoutWindowEvent(manager, this,
+					previousComponent);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowComponentAdded(e);
+				manager.dispatch(l.get(i), RLayoutManager.COMPONENT_ADDED, e);
 			}
 		}
 	}
 
 	void fireComponentRemoved(JComponent previousComponent) {
-		Vector l = getLayoutManager().getListeners();
+		Vector l = manager.getListeners();
 		int size = l.size();
 		if (size > 0) {
-			RLayoutWindowEvent e = new RLayoutWindowEvent(getLayoutManager(),
-					this, previousComponent);
+			RLayoutWindowEvent e = new RLayoutWindowEvent(manager, this,
+					previousComponent);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i))
-						.layoutWindowComponentRemoved(e);
+				manager.dispatch(l.get(i), RLayoutManager.COMPONENT_REMOVED, e);
 			}
 		}
 	}
 
 	void fireComponentChanged(JComponent previousComponent) {
-		Vector l = getLayoutManager().getListeners();
+		Vector l = manager.getListeners();
 		int size = l.size();
 		if (size > 0) {
-			RLayoutWindowEvent e = new RLayoutWindowEvent(getLayoutManager(),
-					this, previousComponent);
+			RLayoutWindowEvent e = new RLayoutWindowEvent(manager, this,
+					previousComponent);
 			for (int i = 0; i < size; i++) {
-				((LayoutWindowListener) l.get(i)).layoutWindowChanged(e);
+				manager.dispatch(l.get(i), RLayoutManager.CHANGED, e);
 			}
 		}
 	}
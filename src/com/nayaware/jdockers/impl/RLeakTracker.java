@@ -0,0 +1,141 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.swing.Timer;
+
+/**
+ * This class watches closed windows through weak references and reports
+ * windows which are still strongly reachable {@link #GC_CYCLES} garbage
+ * collections after they were closed. Garbage collections are counted with a
+ * weakly referenced sentinel object which is cleared by each collection (so
+ * at most one collection is counted per check). Used by the Layout Manager
+ * while debugging is enabled.
+ */
+class RLeakTracker implements ActionListener {
+
+	/**
+	 * Number of garbage collections after which a closed window which is
+	 * still reachable is reported.
+	 */
+	static final int GC_CYCLES = 3;
+
+	/**
+	 * How often (in milliseconds) tracked windows are checked.
+	 */
+	static final int CHECK_INTERVAL = 1000;
+
+	/**
+	 * A weak reference to a closed window.
+	 */
+	private static class Entry extends WeakReference {
+		final String name;
+		final int closedAt;
+		boolean reported;
+
+		Entry(Object window, String name, int closedAt, ReferenceQueue queue) {
+			super(window, queue);
+			this.name = name;
+			this.closedAt = closedAt;
+		}
+	}
+
+	private final RLayoutManager manager;
+
+	private final ReferenceQueue queue = new ReferenceQueue();
+
+	private final List entries = new ArrayList();
+
+	private final Timer timer = new Timer(CHECK_INTERVAL, this);
+
+	private Reference sentinel = new WeakReference(new Object());
+
+	private int gcCount;
+
+	RLeakTracker(RLayoutManager manager) {
+		this.manager = manager;
+	}
+
+	/**
+	 * Starts watching the specified closed window.
+	 */
+	void track(Object window, String name) {
+		entries.add(new Entry(window, name, gcCount, queue));
+		if (!timer.isRunning()) {
+			timer.start();
+		}
+	}
+
+	/**
+	 * Stops watching the specified window because it was opened again.
+	 */
+	void untrack(Object window) {
+		for (Iterator i = entries.iterator(); i.hasNext();) {
+			if (((Entry) i.next()).get() == window) {
+				i.remove();
+			}
+		}
+	}
+
+	/**
+	 * Stops watching all windows.
+	 */
+	void stop() {
+		timer.stop();
+		entries.clear();
+	}
+
+	/**
+	 * Returns the names of the windows reported so far which are still
+	 * reachable.
+	 */
+	String[] getSuspects() {
+		check();
+		List names = new ArrayList();
+		for (Iterator i = entries.iterator(); i.hasNext();) {
+			Entry e = (Entry) i.next();
+			if (e.reported) {
+				names.add(e.name);
+			}
+		}
+		return (String[]) names.toArray(new String[names.size()]);
+	}
+
+	public void actionPerformed(ActionEvent e) {
+		check();
+		if (entries.isEmpty()) {
+			timer.stop();
+		}
+	}
+
+	/**
+	 * Drops collected windows, counts garbage collections and reports windows
+	 * which survived too many of them.
+	 */
+	void check() {
+		Reference ref;
+		while ((ref = queue.poll()) != null) {
+			entries.remove(ref);
+		}
+		if (sentinel.get() == null) {
+			gcCount++;
+			sentinel = new WeakReference(new Object());
+		}
+		for (Iterator i = entries.iterator(); i.hasNext();) {
+			Entry e = (Entry) i.next();
+			if (!e.reported && e.get() != null
+					&& gcCount - e.closedAt >= GC_CYCLES) {
+				e.reported = true;
+				manager.log("window still reachable " + GC_CYCLES
+						+ " garbage collections after close: ", e.name);
+			}
+		}
+	}
+}
@@ -4,12 +4,10 @@ import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
-import java.util.Map.Entry;
 
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
@@ -30,9 +28,20 @@ public class RMemento {
 
 	private String type;
 
-	private Map data = new HashMap();
+	/**
+	 * Attribute keys and values, alternating. Layout hints are kept for every
+	 * window so attributes are stored in a plain array instead of a map.
+	 */
+	private String[] attributes = NO_ATTRIBUTES;
+
+	private int attributeCount;
+
+	/**
+	 * Children, shared empty list until the first child is added.
+	 */
+	private List children = Collections.EMPTY_LIST;
 
-	private List children = new ArrayList();
+	private static final String[] NO_ATTRIBUTES = new String[0];
 
 	/**
 	 * Constructs a new memento instance usable to store double/int/string
@@ -105,7 +114,12 @@ public class RMemento {
 	 * key is unknown.
 	 */
 	public String getString(String key) {
-		return (String) data.get(key);
+		for (int i = 0; i < attributeCount; i += 2) {
+			if (attributes[i].equals(key)) {
+				return attributes[i + 1];
+			}
+		}
+		return null;
 	}
 
 	// storing data
@@ -129,6 +143,9 @@ public class RMemento {
 	 * Adds the given memento as new child to the receiver.
 	 */
 	public void putMemento(RMemento memento) {
+		if (children == Collections.EMPTY_LIST) {
+			children = new ArrayList(2);
+		}
 		children.add(memento);
 	}
 
@@ -136,7 +153,19 @@ public class RMemento {
 	 * Sets the value of the given key to the given string.
 	 */
 	public void putString(String key, String value) {
-		data.put(key, value);
+		for (int i = 0; i < attributeCount; i += 2) {
+			if (attributes[i].equals(key)) {
+				attributes[i + 1] = value;
+				return;
+			}
+		}
+		if (attributeCount == attributes.length) {
+			String[] nattributes = new String[attributeCount + 4];
+			System.arraycopy(attributes, 0, nattributes, 0, attributeCount);
+			attributes = nattributes;
+		}
+		attributes[attributeCount++] = key;
+		attributes[attributeCount++] = value;
 	}
 
 	// remove children
@@ -146,6 +175,27 @@ public class RMemento {
 		children.remove(memento);
 	}
 
+	/**
+	 * Returns a rough estimate of the bytes used by this memento and all of
+	 * its children.
+	 */
+	long estimateSize() {
+		long size = RLayoutManager.OBJECT_SIZE + 4
+				* RLayoutManager.REFERENCE_SIZE;
+		size += RLayoutManager.sizeOfArray(attributes.length);
+		for (int i = 0; i < attributeCount; i++) {
+			size += RLayoutManager.sizeOf(attributes[i]);
+		}
+		if (children != Collections.EMPTY_LIST) {
+			size += RLayoutManager.OBJECT_SIZE
+					+ RLayoutManager.sizeOfArray(children.size());
+			for (int i = 0; i < children.size(); i++) {
+				size += ((RMemento) children.get(i)).estimateSize();
+			}
+		}
+		return size;
+	}
+
 	// file I/O
 	// ----------------------------------------------------------------------------------
 
@@ -160,12 +210,11 @@ public class RMemento {
 		indent(w, level);
 		w.print('<');
 		w.print(type);
-		for (Iterator i = data.entrySet().iterator(); i.hasNext();) {
-			Entry e = (Entry) i.next();
+		for (int i = 0; i < attributeCount; i += 2) {
 			w.print(' ');
-			w.print(e.getKey());
+			w.print(attributes[i]);
 			w.print('=');
-			writeQuoted(w, e.getValue().toString());
+			writeQuoted(w, attributes[i + 1]);
 		}
 		if (children.isEmpty()) {
 			w.print('/');
@@ -211,7 +260,7 @@ public class RMemento {
 	 * 
 	 * @throws IOException
 	 */
-	static RMemento read(Reader r) throws IOException {
+	public static RMemento read(Reader r) throws IOException {
 		try {
 			final RMemento[] result = new RMemento[1];
 			XMLReader reader = SAXParserFactory.newInstance().newSAXParser()
@@ -253,12 +302,11 @@ public class RMemento {
 		StringBuffer buf = new StringBuffer(256);
 		buf.append('{');
 		buf.append(type);
-		for (Iterator i = data.entrySet().iterator(); i.hasNext();) {
-			Entry e = (Entry) i.next();
+		for (int i = 0; i < attributeCount; i += 2) {
 			buf.append(' ');
-			buf.append(e.getKey());
+			buf.append(attributes[i]);
 			buf.append('=');
-			buf.append(e.getValue());
+			buf.append(attributes[i + 1]);
 		}
 		for (Iterator i = children.iterator(); i.hasNext();) {
 			buf.append(' ');
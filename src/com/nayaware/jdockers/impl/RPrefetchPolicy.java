@@ -0,0 +1,55 @@
+package com.nayaware.jdockers.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.nayaware.jdockers.DocumentWindow;
+import com.nayaware.jdockers.PrefetchPolicy;
+
+/**
+ * The default prefetch policy. Users mostly return to a recently selected
+ * document or step to the next or previous tab, so it chooses the most
+ * recently selected windows first, then the neighbors of the selected tab,
+ * the next before the previous one.
+ */
+class RPrefetchPolicy implements PrefetchPolicy {
+
+	private final int recent;
+
+	private final int neighbors;
+
+	/**
+	 * Constructs a policy choosing the specified number of recently selected
+	 * windows and of neighbors on each side of the selected tab.
+	 */
+	RPrefetchPolicy(int recent, int neighbors) {
+		this.recent = recent;
+		this.neighbors = neighbors;
+	}
+
+	public DocumentWindow[] getPrefetchCandidates(DocumentWindow selected,
+			DocumentWindow[] windows, DocumentWindow[] recentWindows) {
+		List candidates = new ArrayList(recent + 2 * neighbors);
+		for (int i = 0; i < recent && i < recentWindows.length; i++) {
+			candidates.add(recentWindows[i]);
+		}
+		int index = 0;
+		while (index < windows.length && windows[index] != selected) {
+			index++;
+		}
+		if (index < windows.length) {
+			for (int i = 1; i <= neighbors; i++) {
+				if (index + i < windows.length
+						&& !candidates.contains(windows[index + i])) {
+					candidates.add(windows[index + i]);
+				}
+				if (index - i >= 0
+						&& !candidates.contains(windows[index - i])) {
+					candidates.add(windows[index - i]);
+				}
+			}
+		}
+		return (DocumentWindow[]) candidates
+				.toArray(new DocumentWindow[candidates.size()]);
+	}
+}
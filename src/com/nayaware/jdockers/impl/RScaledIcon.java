@@ -0,0 +1,133 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.Component;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.RenderingHints;
+import java.awt.Transparency;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Point2D;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import javax.swing.Icon;
+import javax.swing.ImageIcon;
+
+/**
+ * This icon paints its image on scaled (HiDPI) displays without interpolating
+ * it on every paint. For each graphics configuration and scale factor, the
+ * image is scaled once into a compatible image which is then copied pixel by
+ * pixel. Because the images are kept per graphics configuration, a window
+ * moved to a monitor with a different scale simply uses other images.
+ */
+class RScaledIcon extends ImageIcon {
+
+	/**
+	 * Scaled icons for arbitrary image icons, see {@link #getScaledIcon(Icon)}.
+	 */
+	private static Map scaledIcons = new WeakHashMap();
+
+	/**
+	 * Maps graphics configurations to maps from scale factor (as
+	 * <code>Double</code>) to the scaled image.
+	 */
+	private Map scaledImages = new WeakHashMap();
+
+	RScaledIcon(Image image) {
+		super(image);
+	}
+
+	/**
+	 * Returns a scaled icon showing the same image as the specified icon or
+	 * the icon itself if it's no <code>ImageIcon</code>.
+	 */
+	static synchronized Icon getScaledIcon(Icon icon) {
+		if (icon instanceof RScaledIcon || !(icon instanceof ImageIcon)) {
+			return icon;
+		}
+		Icon scaledIcon = (Icon) scaledIcons.get(icon);
+		if (scaledIcon == null) {
+			scaledIcon = new RScaledIcon(((ImageIcon) icon).getImage());
+			scaledIcons.put(icon, scaledIcon);
+		}
+		return scaledIcon;
+	}
+
+	public void paintIcon(Component c, Graphics g, int x, int y) {
+		double scale = getScale(g);
+		if (scale == 1 || getIconWidth() <= 0 || getIconHeight() <= 0) {
+			super.paintIcon(c, g, x, y);
+			return;
+		}
+		Image image = getScaledImage(((Graphics2D) g).getDeviceConfiguration(),
+				scale);
+		drawDeviceImage(g, image, x, y, image.getWidth(null), image
+				.getHeight(null), image.getWidth(null), image.getHeight(null));
+	}
+
+	/**
+	 * Returns the image scaled for the specified configuration and scale,
+	 * scaling it on first use.
+	 */
+	synchronized Image getScaledImage(GraphicsConfiguration gc, double scale) {
+		Map images = (Map) scaledImages.get(gc);
+		if (images == null) {
+			scaledImages.put(gc, images = new HashMap());
+		}
+		Double key = Double.valueOf(scale);
+		Image image = (Image) images.get(key);
+		if (image == null) {
+			int width = (int) Math.ceil(getIconWidth() * scale);
+			int height = (int) Math.ceil(getIconHeight() * scale);
+			image = gc.createCompatibleImage(width, height,
+					Transparency.TRANSLUCENT);
+			Graphics2D g = (Graphics2D) image.getGraphics();
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+					RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+			g.drawImage(getImage(), 0, 0, width, height, null);
+			g.dispose();
+			images.put(key, image);
+		}
+		return image;
+	}
+
+	/**
+	 * Returns the scale factor of the specified graphics or <code>1</code> if
+	 * it isn't a simple (non rotated, non sheared) uniform scale.
+	 */
+	static double getScale(Graphics g) {
+		if (!(g instanceof Graphics2D)) {
+			return 1;
+		}
+		AffineTransform t = ((Graphics2D) g).getTransform();
+		int simple = AffineTransform.TYPE_TRANSLATION
+				| AffineTransform.TYPE_UNIFORM_SCALE;
+		if ((t.getType() & ~simple) != 0 || t.getScaleX() <= 0) {
+			return 1;
+		}
+		return t.getScaleX();
+	}
+
+	/**
+	 * Draws the specified region of an image which has already been scaled for
+	 * the graphics without scaling it again. <code>x</code> and
+	 * <code>y</code> are in user space, the sizes are in device pixels.
+	 */
+	static void drawDeviceImage(Graphics g, Image image, int x, int y,
+			int width, int height, int sourceWidth, int sourceHeight) {
+		Graphics2D g2 = (Graphics2D) g.create();
+		try {
+			Point2D p = g2.getTransform().transform(new Point2D.Double(x, y),
+					null);
+			g2.setTransform(AffineTransform.getTranslateInstance(Math.round(p
+					.getX()), Math.round(p.getY())));
+			g2.drawImage(image, 0, 0, width, height, 0, 0, sourceWidth,
+					sourceHeight, null);
+		} finally {
+			g2.dispose();
+		}
+	}
+}
@@ -0,0 +1,261 @@
+package com.nayaware.jdockers.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.swing.ImageIcon;
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import com.nayaware.jdockers.ContentProvider;
+import com.nayaware.jdockers.DockableWindow;
+import com.nayaware.jdockers.DocumentWindow;
+import com.nayaware.jdockers.LayoutManagerException;
+import com.nayaware.jdockers.StartupPipeline;
+
+/**
+ * This class implements the startup pipeline. Contents are loaded by a pool
+ * with one thread per processor, the highest priorities submitted first.
+ * Loaded entries are queued in a lock-free queue; a single assembly on the
+ * event dispatch thread is scheduled while the queue is not empty. It sorts
+ * the loaded entries, adds components for at most one frame interval and
+ * schedules itself again if entries are left, like the drain of
+ * <code>RAsyncLayoutManager</code>. Windows closed in the meantime are
+ * neither loaded nor assembled.
+ */
+class RStartupPipeline implements StartupPipeline, Runnable {
+
+	/**
+	 * A declared window and, once loaded, its content or the failure.
+	 */
+	private static class Entry {
+		final RLayoutWindow window;
+		final ContentProvider provider;
+		final int priority;
+		final int index;
+		Object content;
+		Throwable failure;
+
+		Entry(RLayoutWindow window, ContentProvider provider, int priority,
+				int index) {
+			this.window = window;
+			this.provider = provider;
+			this.priority = priority;
+			this.index = index;
+		}
+	}
+
+	/**
+	 * Orders entries by priority and declaration.
+	 */
+	private static final Comparator byPriority = new Comparator() {
+		public int compare(Object o1, Object o2) {
+			Entry e1 = (Entry) o1;
+			Entry e2 = (Entry) o2;
+			if (e1.priority != e2.priority) {
+				return e1.priority > e2.priority ? -1 : 1;
+			}
+			return e1.index - e2.index;
+		}
+	};
+
+	/**
+	 * Orders entries of shown windows first, then by priority and declaration.
+	 */
+	private static final Comparator byVisibility = new Comparator() {
+		public int compare(Object o1, Object o2) {
+			Entry e1 = (Entry) o1;
+			Entry e2 = (Entry) o2;
+			if (e1.window.isVisible() != e2.window.isVisible()) {
+				return e1.window.isVisible() ? -1 : 1;
+			}
+			return byPriority.compare(o1, o2);
+		}
+	};
+
+	private final RLayoutManager manager;
+
+	private final List entries = new ArrayList();
+
+	/**
+	 * Loaded entries waiting for the event dispatch thread.
+	 */
+	private final ConcurrentLinkedQueue loaded = new ConcurrentLinkedQueue();
+
+	/**
+	 * Loaded entries taken from the queue but not yet assembled.
+	 */
+	private final LinkedList assembling = new LinkedList();
+
+	private final AtomicBoolean scheduled = new AtomicBoolean();
+
+	private ThreadPoolExecutor executor;
+
+	private int remaining;
+
+	private Entry failed;
+
+	/**
+	 * Completes when all entries were assembled.
+	 */
+	private final FutureTask done = new FutureTask(new Callable() {
+		public Object call() {
+			if (failed != null) {
+				throw new LayoutManagerException("content of "
+						+ failed.window.getName() + " failed", failed.failure);
+			}
+			return null;
+		}
+	});
+
+	RStartupPipeline(RLayoutManager manager) {
+		this.manager = manager;
+	}
+
+	public DockableWindow addDockableWindow(String name, String title,
+			ImageIcon icon, ContentProvider provider, int priority) {
+		if (provider == null) {
+			throw new NullPointerException();
+		}
+		checkNotStarted();
+		DockableWindow w = manager.createDockableWindow(name, title, icon);
+		add((RLayoutWindow) w, provider, priority);
+		return w;
+	}
+
+	public DocumentWindow addDocumentWindow(String name, String title,
+			ImageIcon icon, ContentProvider provider, int priority) {
+		if (provider == null) {
+			throw new NullPointerException();
+		}
+		checkNotStarted();
+		DocumentWindow w = manager.createDocumentWindow(name, title, icon);
+		add((RLayoutWindow) w, provider, priority);
+		return w;
+	}
+
+	private void checkNotStarted() {
+		if (executor != null) {
+			manager.log("StartupPipeline: already started");
+			throw new LayoutManagerException("pipeline already started");
+		}
+	}
+
+	private void add(RLayoutWindow window, ContentProvider provider,
+			int priority) {
+		entries.add(new Entry(window, provider, priority, entries.size()));
+	}
+
+	public Future start() {
+		checkNotStarted();
+		int threads = Runtime.getRuntime().availableProcessors();
+		executor = new ThreadPoolExecutor(threads, threads, 1,
+				TimeUnit.SECONDS, new LinkedBlockingQueue(),
+				new ThreadFactory() {
+					public Thread newThread(Runnable r) {
+						Thread t = new Thread(r, "winsys startup");
+						t.setDaemon(true);
+						return t;
+					}
+				});
+		executor.allowCoreThreadTimeOut(true);
+		remaining = entries.size();
+		if (remaining == 0) {
+			done.run();
+			return done;
+		}
+		Collections.sort(entries, byPriority);
+		for (int i = 0; i < entries.size(); i++) {
+			final Entry e = (Entry) entries.get(i);
+			executor.execute(new Runnable() {
+				public void run() {
+					load(e);
+				}
+			});
+		}
+		entries.clear();
+		return done;
+	}
+
+	/*
+	 * Loads the content of an entry on a pool thread and queues the entry.
+	 */
+	private void load(Entry e) {
+		if (e.window.isOpen()) {
+			try {
+				e.content = e.provider.loadContent(e.window);
+			} catch (Throwable t) {
+				e.failure = t;
+			}
+		}
+		loaded.add(e);
+		if (scheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this);
+		}
+	}
+
+	/**
+	 * Adds the components of loaded entries on the event dispatch thread.
+	 */
+	public void run() {
+		scheduled.set(false);
+		long deadline = System.nanoTime()
+				+ RGlobalEventListener.getFrameInterval(manager
+						.getLayoutPane()) * 1000000L;
+		Entry e;
+		while ((e = (Entry) loaded.poll()) != null) {
+			assembling.add(e);
+		}
+		Collections.sort(assembling, byVisibility);
+		while (!assembling.isEmpty()) {
+			assemble((Entry) assembling.removeFirst());
+			if (System.nanoTime() > deadline) {
+				break;
+			}
+		}
+		if (remaining == 0) {
+			executor.shutdown();
+			done.run();
+		} else if (!assembling.isEmpty()
+				&& scheduled.compareAndSet(false, true)) {
+			SwingUtilities.invokeLater(this);
+		}
+	}
+
+	private void assemble(Entry e) {
+		remaining--;
+		// skip windows closed in the meantime
+		if (!e.window.isOpen()) {
+			return;
+		}
+		if (e.failure == null) {
+			try {
+				JComponent comp = e.provider.createComponent(e.window,
+						e.content);
+				e.window.addComponent(comp, e.window.getName());
+			} catch (RuntimeException ex) {
+				e.failure = ex;
+			}
+		}
+		e.content = null;
+		if (e.failure != null) {
+			manager.log("StartupPipeline: content failed: ", e.window
+					.getName());
+			if (failed == null) {
+				failed = e;
+			}
+		}
+	}
+}
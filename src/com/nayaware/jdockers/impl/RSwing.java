@@ -6,7 +6,9 @@ import javax.swing.ImageIcon;
 import javax.swing.UIManager;
 
 /**
- * This class references a bunch of icons used by the window panes.
+ * This class references a bunch of icons used by the window panes. The icons
+ * are loaded when they're first used (or by {@link #prefetchIcons()}) and not
+ * when this class is initialized.
  * 
  * @author Winston Prakash
  *  	   Stefan Matthias Aust
@@ -14,40 +16,99 @@ import javax.swing.UIManager;
  */
 public class RSwing {
 
+	/**
+	 * Holds an icon which is loaded once on first use. Access is synchronized
+	 * so that the icon can also be loaded from another thread than the EDT.
+	 * The icon is a {@link RScaledIcon} so it's painted from a cached image on
+	 * scaled displays.
+	 */
+	static final class LazyIcon {
+
+		private final String name;
+
+		private final boolean lookSpecific;
+
+		private RScaledIcon icon;
+
+		LazyIcon(String name, boolean lookSpecific) {
+			this.name = name;
+			this.lookSpecific = lookSpecific;
+		}
+
+		synchronized ImageIcon getIcon() {
+			if (icon == null) {
+				String resource = lookSpecific ? getPrefix() + name : name;
+				icon = new RScaledIcon(new ImageIcon(RSwing.class
+						.getResource(resource)).getImage());
+			}
+			return icon;
+		}
+
+		Image getImage() {
+			return getIcon().getImage();
+		}
+	}
+
 	// Motif has special (uglier ;-) icons. All other looks use the XP style
-	// look.
-	static String prefix = isMotif() ? "motif-" : "";
+	// look. Determined with the first look specific icon.
+	private static String prefix;
+
+	static synchronized String getPrefix() {
+		if (prefix == null) {
+			prefix = isMotif() ? "motif-" : "";
+		}
+		return prefix;
+	}
 
 	// default icon for Autohide Items
-	static ImageIcon pane = new ImageIcon(RSwing.class.getResource("pane.png"));
+	static final LazyIcon pane = new LazyIcon("pane.png", false);
 
 	// close button, normal and pressed (an X)
-	static ImageIcon close0 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "close0.png"));
-	static ImageIcon close1 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "close1.png"));
+	static final LazyIcon close0 = new LazyIcon("close0.png", true);
+	static final LazyIcon close1 = new LazyIcon("close1.png", true);
 
 	// pin/unpin button, normal and pressed (a pin needle)
-	static ImageIcon pin0 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "pin0.png"));
-	static ImageIcon pin1 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "pin1.png"));
-	static ImageIcon pin2 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "pin2.png"));
-	static ImageIcon pin3 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "pin3.png"));
+	static final LazyIcon pin0 = new LazyIcon("pin0.png", true);
+	static final LazyIcon pin1 = new LazyIcon("pin1.png", true);
+	static final LazyIcon pin2 = new LazyIcon("pin2.png", true);
+	static final LazyIcon pin3 = new LazyIcon("pin3.png", true);
 
 	// float button (there's no unfloat button), normal and pressed (two frames)
-	static ImageIcon float0 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "float0.png"));
-	static ImageIcon float1 = new ImageIcon(RSwing.class.getResource(prefix
-			+ "float1.png"));
+	static final LazyIcon float0 = new LazyIcon("float0.png", true);
+	static final LazyIcon float1 = new LazyIcon("float1.png", true);
 
 	// blue titlebar background - used only on windows
-	static Image title0 = new ImageIcon(RSwing.class.getResource("title0.png"))
-			.getImage();
-	static Image title1 = new ImageIcon(RSwing.class.getResource("title1.png"))
-			.getImage();
+	static final LazyIcon title0 = new LazyIcon("title0.png", false);
+	static final LazyIcon title1 = new LazyIcon("title1.png", false);
+
+	private static final LazyIcon[] icons = { pane, close0, close1, pin0,
+			pin1, pin2, pin3, float0, float1, title0, title1 };
+
+	private static boolean prefetched;
+
+	/**
+	 * Loads all icons in a background thread so that they are most likely
+	 * available when the first window pane is created. The look specific
+	 * prefix is determined by the calling thread. Does nothing if called
+	 * again.
+	 */
+	static synchronized void prefetchIcons() {
+		if (prefetched) {
+			return;
+		}
+		prefetched = true;
+		getPrefix();
+		Thread t = new Thread("RSwing icon prefetch") {
+			public void run() {
+				for (int i = 0; i < icons.length; i++) {
+					icons[i].getIcon();
+				}
+			}
+		};
+		t.setDaemon(true);
+		t.setPriority(Thread.MIN_PRIORITY);
+		t.start();
+	}
 
 	public static boolean isMotif() {
 		return "Motif".equals(UIManager.getLookAndFeel().getID());
@@ -1,25 +1,38 @@
 package com.nayaware.jdockers.impl;
 
+import java.awt.BorderLayout;
 import java.awt.Color;
 import java.awt.Component;
 import java.awt.event.ActionEvent;
+import java.awt.event.KeyAdapter;
+import java.awt.event.KeyEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.beans.PropertyChangeEvent;
 import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
 
 import javax.swing.AbstractAction;
+import javax.swing.AbstractListModel;
 import javax.swing.Action;
 import javax.swing.JComponent;
+import javax.swing.JList;
 import javax.swing.JMenu;
 import javax.swing.JMenuItem;
+import javax.swing.JPanel;
 import javax.swing.JPopupMenu;
+import javax.swing.JScrollPane;
+import javax.swing.JSeparator;
 import javax.swing.JTabbedPane;
+import javax.swing.ListSelectionModel;
 import javax.swing.UIManager;
 import javax.swing.event.ChangeEvent;
 import javax.swing.event.ChangeListener;
 
+import com.nayaware.jdockers.LayoutManagerException;
 import com.nayaware.jdockers.custom.JClosableTabbedPane;
 
 /**
@@ -28,6 +41,17 @@ import com.nayaware.jdockers.custom.JClosableTabbedPane;
  * has a context menu to hide, select or split it it away. The container itself
  * has a context menu to hide all windows. Document Windows cannot float or
  * auto-hide.
+ * <p>
+ * Each tab holds a lightweight slot panel instead of the window's component.
+ * Only the selected window's component is added to its slot, all other
+ * Document Windows stay detached from the component hierarchy so that they
+ * aren't laid out or validated while hidden. With many windows the context
+ * menu offers a scrollable, searchable list instead of a menu item per window.
+ * <p>
+ * Windows with a content provider get their component when they are first
+ * selected. After each selection the Layout Manager's prefetch policy chooses
+ * windows whose contents are prepared in the background, based on the recently
+ * selected windows and the tab order.
  * 
  * @author Winston Prakash
  *  	   Stefan Matthias Aust
@@ -53,12 +77,49 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	 */
 	private JClosableTabbedPane tabbedPane;
 
+	/**
+	 * Maximum number of windows listed directly in the "Select Window" menu.
+	 * If there are more, a scrollable list is shown instead.
+	 */
+	static final int MAX_MENU_WINDOWS = 20;
+
+	/**
+	 * Maps each Document Window to the slot panel that is used as its tab's
+	 * component. Also used to test whether a window belongs to this container
+	 * without searching the tabs (windows don't override <code>equals()</code>
+	 * so this is an identity map).
+	 */
+	private Map slots = new HashMap();
+
+	/**
+	 * The window whose component is currently added to its slot.
+	 */
+	private RDockableWindow attachedWindow;
+
+	/**
+	 * Maximum number of recently selected windows remembered for the prefetch
+	 * policy.
+	 */
+	static final int MAX_RECENT_WINDOWS = 8;
+
+	/**
+	 * The previously selected windows, the most recent first.
+	 */
+	private LinkedList recentWindows = new LinkedList();
+
+	/*
+	 * The context menu and its actions are shared by all containers. Each
+	 * action finds the container it acts on through the source of its event.
+	 */
+
 	/**
 	 * Action to hide the currently selected window.
 	 */
-	private Action hideTabAction = new AbstractAction("Hide") {
+	private static final Action hideTabAction = new AbstractAction("Hide") {
 		public void actionPerformed(ActionEvent e) {
-			RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			RDockableWindow window = pane != null ? pane.getSelectedWindow()
+					: null;
 			if (window != null) {
 				window.hide();
 				window.close();
@@ -69,12 +130,15 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	/**
 	 * Action to hide all windows.
 	 */
-	private Action hideAllAction = new AbstractAction("Hide All") {
+	private static final Action hideAllAction = new AbstractAction("Hide All") {
 		public void actionPerformed(ActionEvent e) {
-			RDockableWindow[] windows = getWindows();
-			for (int i = 0; i < windows.length; i++) {
-				windows[i].hide();
-				windows[i].close();
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane != null) {
+				RDockableWindow[] windows = pane.getWindows();
+				for (int i = 0; i < windows.length; i++) {
+					windows[i].hide();
+					windows[i].close();
+				}
 			}
 		}
 	};
@@ -83,9 +147,33 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	 * Action to activate the window whose index is encoded in the ActionEven's
 	 * command string.
 	 */
-	private Action selectAction = new AbstractAction() {
+	private static final Action selectAction = new AbstractAction() {
+		public void actionPerformed(ActionEvent e) {
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane instanceof RTabbedDocumentPane) {
+				JClosableTabbedPane tabbedPane;
+				tabbedPane = ((RTabbedDocumentPane) pane).tabbedPane;
+				int index = Integer.parseInt(e.getActionCommand());
+				if (tabbedPane != null && index < tabbedPane.getTabCount()) {
+					tabbedPane.setSelectedIndex(index);
+				}
+			}
+		}
+	};
+
+	/**
+	 * Action to show a list of all windows, used instead of the "Select
+	 * Window" menu if there are too many windows.
+	 */
+	private static final Action selectFromListAction = new AbstractAction(
+			"Select Window...") {
 		public void actionPerformed(ActionEvent e) {
-			tabbedPane.setSelectedIndex(Integer.parseInt(e.getActionCommand()));
+			RWindowPane pane = RContextMenu.getPane(e);
+			RContextMenu menu = RContextMenu.getMenu(e);
+			if (pane instanceof RTabbedDocumentPane && menu != null) {
+				((RTabbedDocumentPane) pane).showSelectWindowPopup(menu
+						.getInvoker(), menu.invokerX, menu.invokerY);
+			}
 		}
 	};
 
@@ -93,16 +181,18 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	 * Action to split the currently selected window from the container, using
 	 * the direction encoded in the ActionEvent's command string.
 	 */
-	private Action splitAction = new AbstractAction() {
+	private static final Action splitAction = new AbstractAction() {
 		public void actionPerformed(ActionEvent e) {
-			if (getWindowCount() > 1) {
-				RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			if (pane != null && pane.getWindowCount() > 1) {
+				RDockableWindow window = pane.getSelectedWindow();
 				if (window != null) {
-					removeWindow(window);
-					RTabbedDocumentPane pane = new RTabbedDocumentPane(window);
-					getParentTiledContainer().dockPaneAt(
-							Integer.parseInt(e.getActionCommand()), pane,
-							RTabbedDocumentPane.this, 0.5);
+					pane.removeWindow(window);
+					RTabbedDocumentPane newPane = new RTabbedDocumentPane(
+							window);
+					pane.getParentTiledContainer().dockPaneAt(
+							Integer.parseInt(e.getActionCommand()), newPane,
+							pane, 0.5);
 				}
 			}
 		}
@@ -111,15 +201,78 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	/**
 	 * Action to trigger a save event for the currently selected window.
 	 */
-	private Action saveAction = new AbstractAction() {
+	private static final Action saveAction = new AbstractAction() {
 		public void actionPerformed(ActionEvent e) {
-			RDockableWindow window = getSelectedWindow();
+			RWindowPane pane = RContextMenu.getPane(e);
+			RDockableWindow window = pane != null ? pane.getSelectedWindow()
+					: null;
 			if (window != null) {
 				window.getLayoutManager().fireSaveNeeded(window);
 			}
 		}
 	};
 
+	/**
+	 * The shared context menu, created on first use.
+	 */
+	private static RContextMenu menu;
+
+	private static JMenuItem saveItem, selectFromListItem, hideTabItem,
+			hideAllItem;
+
+	private static JSeparator saveSeparator;
+
+	private static JMenu windowsMenu, splitMenu;
+
+	static {
+		// the shared menu isn't part of a component tree, so it wouldn't get
+		// the new UI delegates; drop it and create it again on next use
+		UIManager.addPropertyChangeListener(new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent evt) {
+				if ("lookAndFeel".equals(evt.getPropertyName())) {
+					menu = null;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Returns the shared context menu updated for the specified container and
+	 * tab index (<code>-1</code> if no tab was clicked).
+	 */
+	private static RContextMenu getMenu(RTabbedDocumentPane pane, int index) {
+		if (menu == null) {
+			menu = new RContextMenu();
+			saveItem = menu.add(saveAction);
+			saveSeparator = new JPopupMenu.Separator();
+			menu.add(saveSeparator);
+			selectFromListItem = menu.add(selectFromListAction);
+			windowsMenu = new JMenu("Select Window");
+			menu.add(windowsMenu);
+			splitMenu = RContextMenu.createSplitMenu(splitAction);
+			menu.add(splitMenu);
+			menu.addSeparator();
+			hideTabItem = menu.add(hideTabAction);
+			hideAllItem = menu.add(hideAllAction);
+		}
+		int count = pane.getWindowCount();
+		saveItem.setVisible(index != -1);
+		saveSeparator.setVisible(index != -1);
+		if (index != -1) {
+			saveItem.setText("Save <" + pane.getWindow(index).getTitleForTab()
+					+ ">");
+		}
+		selectFromListItem.setVisible(count > MAX_MENU_WINDOWS);
+		windowsMenu.setVisible(count <= MAX_MENU_WINDOWS);
+		if (count <= MAX_MENU_WINDOWS) {
+			RContextMenu.updateWindowItems(windowsMenu, pane, selectAction);
+		}
+		splitMenu.setVisible(index != -1 && count > 1);
+		hideTabItem.setVisible(index != -1);
+		hideAllItem.setVisible(index == -1);
+		return menu;
+	}
+
 	// constructors
 	// ------------------------------------------------------------------------------
 
@@ -155,10 +308,13 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 		// there must be a better way but we don't want stateChanged events when
 		// a new tab is added so we'll temporarily remove the listener
 		tabbedPane.removeChangeListener(this);
-		tabbedPane.addTab(window.getTitleForTab(), window.getIcon(),
-				window.getWindowComponent(), window.getTitle());
+		JPanel slot = new JPanel(new BorderLayout());
+		slot.putClientProperty("model", window);
+		slots.put(window, slot);
+		tabbedPane.addTab(window.getTitleForTab(), window.getIcon(), slot,
+				window.getTitle());
 		if (getActiveWindow() == window) {
-			tabbedPane.setSelectedComponent(window.getWindowComponent());
+			tabbedPane.setSelectedComponent(slot);
 			setActive(true);
 		}
 		fireChangedNoActivate();
@@ -199,60 +355,64 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 			public void mouseReleased(MouseEvent e) {
 				if (e.isPopupTrigger()) {
 					int index = tabbedPane.indexAtLocation(e.getX(), e.getY());
-					JPopupMenu menu = new JPopupMenu();
-
-					if (index != -1) {
-						JMenuItem item = new JMenuItem();
-						item.setText("Save <"
-								+ getWindow(index).getTitleForTab() + ">");
-						item.addActionListener(saveAction);
-						menu.add(item);
-						menu.addSeparator();
-					}
-					int count = getWindowCount();
-					JMenu windows = new JMenu("Select Window");
-					for (int i = 0; i < count; i++) {
-						JMenuItem item = new JMenuItem();
-						item.setText(getWindow(i).getTitle());
-						item.setActionCommand(String.valueOf(i));
-						item.addActionListener(selectAction);
-						windows.add(item);
-					}
-					menu.add(windows);
-					if (index != -1 && count > 1) {
-						JMenu splits = new JMenu("Split");
-						JMenuItem item;
-						item = new JMenuItem("Top");
-						item.setActionCommand("0");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						item = new JMenuItem("Left");
-						item.setActionCommand("1");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						item = new JMenuItem("Bottom");
-						item.setActionCommand("2");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						item = new JMenuItem("Right");
-						item.setActionCommand("3");
-						item.addActionListener(splitAction);
-						splits.add(item);
-						menu.add(splits);
-					}
-					menu.addSeparator();
-					if (index != -1) {
-						menu.add(hideTabAction);
-					} else {
-						menu.add(hideAllAction);
-					}
-
+					JPopupMenu menu = getMenu(RTabbedDocumentPane.this, index);
 					menu.show(e.getComponent(), e.getX(), e.getY());
 				}
 			}
 		};
 	}
 
+	/**
+	 * Shows a popup listing all windows of this container. The list only
+	 * renders the visible rows so it stays fast even for thousands of windows.
+	 * Typing the beginning of a title moves the selection, clicking or pressing
+	 * Enter selects the window.
+	 */
+	void showSelectWindowPopup(Component invoker, int x, int y) {
+		final JPopupMenu popup = new JPopupMenu();
+		final JList list = new JList(new AbstractListModel() {
+			public int getSize() {
+				return getWindowCount();
+			}
+
+			public Object getElementAt(int index) {
+				return getWindow(index).getTitle();
+			}
+		});
+		// don't measure every title to compute the list's width
+		list.setPrototypeCellValue("MMMMMMMMMMMMMMMMMMMMMMMMMMMMMMMM");
+		list.setVisibleRowCount(16);
+		list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+		int selectedIndex = tabbedPane.getSelectedIndex();
+		if (selectedIndex != -1) {
+			list.setSelectedIndex(selectedIndex);
+			list.ensureIndexIsVisible(selectedIndex);
+		}
+		list.addMouseListener(new MouseAdapter() {
+			public void mouseReleased(MouseEvent e) {
+				int index = list.locationToIndex(e.getPoint());
+				if (index != -1) {
+					popup.setVisible(false);
+					tabbedPane.setSelectedIndex(index);
+				}
+			}
+		});
+		list.addKeyListener(new KeyAdapter() {
+			public void keyPressed(KeyEvent e) {
+				if (e.getKeyCode() == KeyEvent.VK_ENTER
+						&& list.getSelectedIndex() != -1) {
+					popup.setVisible(false);
+					tabbedPane.setSelectedIndex(list.getSelectedIndex());
+				} else if (e.getKeyCode() == KeyEvent.VK_ESCAPE) {
+					popup.setVisible(false);
+				}
+			}
+		});
+		popup.add(new JScrollPane(list));
+		popup.show(invoker, x, y);
+		list.requestFocus();
+	}
+
 	/**
 	 * Removes a Document Window from the container. If the window isn't part of
 	 * this container the method fails silently. The tabbedpane is automatically
@@ -261,8 +421,17 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	void removeWindow(RDockableWindow window) {
 		window.removePropertyChangeListener(this);
 
+		JPanel slot = (JPanel) slots.remove(window);
+		if (slot == null) {
+			return;
+		}
+		if (attachedWindow == window) {
+			slot.remove(window.getWindowComponent());
+			attachedWindow = null;
+		}
+		recentWindows.remove(window);
 		tabbedPane.removeChangeListener(this);
-		tabbedPane.remove(window.getWindowComponent());
+		tabbedPane.remove(slot);
 		fireChangedNoActivate();
 		tabbedPane.addChangeListener(this);
 
@@ -276,6 +445,7 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	}
 
 	private void destroyTabbedPane() {
+		attachWindow(null);
 		tabbedPane.removeChangeListener(this);
 		remove(tabbedPane);
 		tabbedPane = null;
@@ -333,7 +503,10 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	 */
 	public void propertyChange(PropertyChangeEvent evt) {
 		RDocumentWindow window = (RDocumentWindow) evt.getSource();
-		int index = tabbedPane.indexOfComponent(window.getWindowComponent());
+		int index = indexOfWindow(window);
+		if (index == -1) {
+			return;
+		}
 		if ("title".equals(evt.getPropertyName())) {
 			if (window.getTabName() == null) {
 				tabbedPane.setTitleAt(index, window.getTitle());
@@ -357,17 +530,90 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 
 	void fireChangedNoActivate() {
 		RDockableWindow selectedWindow = getSelectedWindow();
+		attachWindow(selectedWindow);
 		if (lastSelectedWindow != selectedWindow) {
 			if (lastSelectedWindow != null) {
 				lastSelectedWindow.fireHidden();
 			}
+			if (lastSelectedWindow != null
+					&& slots.containsKey(lastSelectedWindow)) {
+				recentWindows.addFirst(lastSelectedWindow);
+			}
 			lastSelectedWindow = selectedWindow;
 			if (lastSelectedWindow != null) {
+				recentWindows.remove(lastSelectedWindow);
+				if (recentWindows.size() > MAX_RECENT_WINDOWS) {
+					recentWindows.removeLast();
+				}
 				lastSelectedWindow.fireShown();
+				prefetch((RDocumentWindow) lastSelectedWindow);
 			}
 		}
 	}
 
+	/*
+	 * Lets the prefetcher prepare the windows likely to be selected next.
+	 */
+	private void prefetch(RDocumentWindow selected) {
+		RDocumentWindow[] windows = new RDocumentWindow[getWindowCount()];
+		for (int i = 0; i < windows.length; i++) {
+			windows[i] = (RDocumentWindow) getWindow(i);
+		}
+		RDocumentWindow[] recent = (RDocumentWindow[]) recentWindows
+				.toArray(new RDocumentWindow[recentWindows.size()]);
+		selected.getLayoutManager().getPrefetcher().selected(selected,
+				windows, recent);
+	}
+
+	/*
+	 * Moves the component of the specified window into its slot and detaches
+	 * the component of the previously selected window.
+	 */
+	private void attachWindow(RDockableWindow window) {
+		if (attachedWindow != window) {
+			if (window != null) {
+				try {
+					window.getLayoutManager().getPrefetcher().ensureContent(
+							(RDocumentWindow) window);
+				} catch (LayoutManagerException e) {
+					// called by the tabbed pane's change event, which must
+					// still reach its other listeners; the window stays empty
+					window.getLayoutManager().log(
+							"attachWindow: can't create content: ", e);
+				}
+			}
+			if (attachedWindow != null) {
+				JPanel slot = (JPanel) slots.get(attachedWindow);
+				if (slot != null) {
+					slot.remove(attachedWindow.getWindowComponent());
+				}
+			}
+			attachedWindow = window;
+			if (window != null) {
+				JPanel slot = (JPanel) slots.get(window);
+				slot.add(window.getWindowComponent(), BorderLayout.CENTER);
+				slot.revalidate();
+				slot.repaint();
+			}
+		}
+	}
+
+	/*
+	 * Returns the tab index of the specified window or -1 if the window isn't
+	 * part of this container.
+	 */
+	private int indexOfWindow(RDockableWindow window) {
+		Component slot = (Component) slots.get(window);
+		if (slot == null) {
+			return -1;
+		}
+		// most lookups are for the selected window, avoid searching the tabs
+		if (tabbedPane.getSelectedComponent() == slot) {
+			return tabbedPane.getSelectedIndex();
+		}
+		return tabbedPane.indexOfComponent(slot);
+	}
+
 	// accessors
 	// ---------------------------------------------------------------------------------
 
@@ -398,7 +644,7 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	 * method will fail silently if the window is unknown.
 	 */
 	void activateWindow(RDockableWindow window) {
-		int index = tabbedPane.indexOfComponent(window.getWindowComponent());
+		int index = indexOfWindow(window);
 		if (index != -1) {
 			setActive(true);
 			tabbedPane.setSelectedIndex(index);
@@ -411,12 +657,8 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 	 * silently if the window is unknown.
 	 */
 	void deactivateWindow(RDockableWindow window) {
-		if (isActive()) {
-			int index = tabbedPane
-					.indexOfComponent(window.getWindowComponent());
-			if (index != -1) {
-				setActive(false);
-			}
+		if (isActive() && slots.containsKey(window)) {
+			setActive(false);
 		}
 	}
 
@@ -455,14 +697,7 @@ public class RTabbedDocumentPane extends RWindowPane implements ChangeListener,
 
 	/* See RPane */
 	RWindowPane findWindowPane(RDockableWindow window) {
-		if (tabbedPane != null) {
-			for (int i = 0; i < tabbedPane.getTabCount(); i++) {
-				if (tabbedPane.getComponentAt(i) == window.getWindowComponent()) {
-					return this;
-				}
-			}
-		}
-		return null;
+		return slots.containsKey(window) ? this : null;
 	}
 
 	// -------------------------------------------------------------------------------------------
@@ -6,13 +6,25 @@ import java.awt.Dimension;
 import java.awt.GradientPaint;
 import java.awt.Graphics;
 import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
 import java.awt.GridBagConstraints;
 import java.awt.GridBagLayout;
+import java.awt.Image;
 import java.awt.Insets;
+import java.awt.RenderingHints;
 import java.awt.event.ActionEvent;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
+import java.awt.image.BufferedImage;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 import javax.swing.AbstractAction;
 import javax.swing.Action;
@@ -36,6 +48,47 @@ public abstract class RTitledPane extends RWindowPane {
 
 	private static boolean xpStyle = RSwing.isWindows();
 
+	/**
+	 * Title bar backgrounds are rendered in steps of this many pixels and then
+	 * stretched to the real width so that resizing doesn't flood the cache.
+	 */
+	static final int WIDTH_BUCKET = 32;
+
+	/**
+	 * Maximum number of pre-rendered title bar backgrounds kept in the cache.
+	 */
+	static final int MAX_CACHED_BACKGROUNDS = 64;
+
+	/**
+	 * Shared cache of pre-rendered title bar backgrounds, keyed by active
+	 * state, width bucket, height, look and feel and colors. The least recently
+	 * used background is dropped if the cache grows too large.
+	 */
+	private static Map backgroundCache = new LinkedHashMap(16, 0.75f, true) {
+		protected boolean removeEldestEntry(Map.Entry eldest) {
+			return size() > MAX_CACHED_BACKGROUNDS;
+		}
+	};
+
+	/**
+	 * Accumulated title bar paint times in nanoseconds per pane class (value
+	 * is an AtomicLongArray of paint count and total time). Written on the
+	 * event dispatch thread, read by the metrics from any thread.
+	 */
+	private static Map paintTimes = new ConcurrentHashMap();
+
+	static {
+		// listen for look and feel changes and drop all cached backgrounds
+		UIManager.addPropertyChangeListener(new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent evt) {
+				if ("lookAndFeel".equals(evt.getPropertyName())) {
+					xpStyle = RSwing.isWindows();
+					backgroundCache.clear();
+				}
+			}
+		});
+	}
+
 	/**
 	 * Flag whether the the title bar shall be displayed in a way denoting the
 	 * active pane
@@ -47,33 +100,133 @@ public abstract class RTitledPane extends RWindowPane {
 	 */
 	JPanel caption = new JPanel(new GridBagLayout()) {
 		protected void paintComponent(Graphics g) {
-			if (xpStyle) {
-				g.drawImage(active ? RSwing.title0 : RSwing.title1, 0, 0,
-						getWidth(), getHeight(), 0, 0, 30, 30, this);
-				return;
+			long start = System.nanoTime();
+			boolean gtk = !xpStyle && RSwing.isGTK();
+			double scale = RScaledIcon.getScale(g);
+			Image background = getTitleBackground(this, active,
+					gtk ? title.getPreferredSize().width : 0, scale);
+			if (background == null) {
+				super.paintComponent(g);
+			} else if (scale == 1) {
+				// GTK uses a fixed size gradient which must not be stretched
+				int sw = gtk ? getWidth() : background.getWidth(null);
+				g.drawImage(background, 0, 0, getWidth(), getHeight(), 0, 0,
+						sw, getHeight(), null);
+			} else {
+				// the background is already scaled, copy the device pixels
+				int dw = (int) Math.ceil(getWidth() * scale);
+				int dh = background.getHeight(null);
+				int sw = gtk ? dw : background.getWidth(null);
+				RScaledIcon.drawDeviceImage(g, background, 0, 0, dw, dh, sw,
+						dh);
 			}
-			Color gradient;
-			if ((gradient = UIManager
+			recordPaintTime(RTitledPane.this.getClass(), System.nanoTime()
+					- start);
+		}
+	};
+
+	/**
+	 * Returns the pre-rendered background for a title bar of the specified
+	 * component's size or <code>null</code> if the look and feel has no title
+	 * gradient and the component shall paint itself. <code>x1</code> is the
+	 * start of the gradient, used only for GTK. The background is rendered in
+	 * device pixels for the specified display scale.
+	 */
+	static Image getTitleBackground(JPanel caption, boolean active, int x1,
+			double scale) {
+		int width = caption.getWidth();
+		int height = caption.getHeight();
+		if (width <= 0 || height <= 0) {
+			return null;
+		}
+		Color background = caption.getBackground();
+		Color gradient = null;
+		if (!xpStyle) {
+			gradient = UIManager
 					.getColor(active ? "InternalFrame.activeTitleGradient"
-							: "InternalFrame.inactiveTitleGradient")) != null) {
-				int x1, x2, y2;
-				if (RSwing.isGTK()) {
-					x1 = title.getPreferredSize().width;
+							: "InternalFrame.inactiveTitleGradient");
+			if (gradient == null || background == null) {
+				return null;
+			}
+		}
+		int bucket = (width + WIDTH_BUCKET - 1) / WIDTH_BUCKET * WIDTH_BUCKET;
+		String key = (active ? "active," : "inactive,") + bucket + ","
+				+ height + "," + UIManager.getLookAndFeel().getID() + ","
+				+ (background != null ? background.getRGB() : 0) + ","
+				+ (gradient != null ? gradient.getRGB() : 0) + "," + x1 + ","
+				+ scale;
+		Image image = (Image) backgroundCache.get(key);
+		if (image == null) {
+			int dw = (int) Math.ceil(bucket * scale);
+			int dh = (int) Math.ceil(height * scale);
+			GraphicsConfiguration gc = caption.getGraphicsConfiguration();
+			image = gc != null ? gc.createCompatibleImage(dw, dh)
+					: new BufferedImage(dw, dh, BufferedImage.TYPE_INT_RGB);
+			Graphics2D g = (Graphics2D) image.getGraphics();
+			if (scale != 1) {
+				g.setRenderingHint(RenderingHints.KEY_INTERPOLATION,
+						RenderingHints.VALUE_INTERPOLATION_BICUBIC);
+				g.scale(scale, scale);
+			}
+			if (xpStyle) {
+				Image titleImage = (active ? RSwing.title0 : RSwing.title1)
+						.getImage();
+				g.drawImage(titleImage, 0, 0, bucket, height, 0, 0, 30, 30, null);
+			} else {
+				int x2, y2;
+				if (x1 != 0 || RSwing.isGTK()) {
 					x2 = x1 + 30;
-					y2 = getHeight() / 2;
+					y2 = height / 2;
 				} else {
-					x1 = 0;
-					x2 = getWidth();
+					x2 = bucket;
 					y2 = 0;
 				}
-				((Graphics2D) g).setPaint(new GradientPaint(x1, 0,
-						getBackground(), x2, y2, gradient));
-				g.fillRect(0, 0, getWidth(), getHeight());
-			} else {
-				super.paintComponent(g);
+				g.setPaint(new GradientPaint(x1, 0, background, x2, y2,
+						gradient));
+				g.fillRect(0, 0, bucket, height);
 			}
+			g.dispose();
+			backgroundCache.put(key, image);
 		}
-	};
+		return image;
+	}
+
+	/**
+	 * Adds the specified paint time to the statistics of the pane class.
+	 */
+	static void recordPaintTime(Class paneClass, long nanos) {
+		AtomicLongArray times = (AtomicLongArray) paintTimes.get(paneClass);
+		if (times == null) {
+			paintTimes.put(paneClass, times = new AtomicLongArray(2));
+		}
+		times.incrementAndGet(0);
+		times.addAndGet(1, nanos);
+	}
+
+	/**
+	 * Returns a map from pane class name to the average title bar paint time
+	 * in nanoseconds (as <code>Long</code>).
+	 */
+	static Map getPaintTimes() {
+		Map result = new HashMap();
+		for (Iterator i = paintTimes.entrySet().iterator(); i.hasNext();) {
+			Map.Entry e = (Map.Entry) i.next();
+			AtomicLongArray times = (AtomicLongArray) e.getValue();
+			long count = times.get(0), total = times.get(1);
+			if (count > 0) {
+				String name = ((Class) e.getKey()).getName();
+				result.put(name, Long.valueOf(total / count));
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Resets the paint times of all pane classes.
+	 */
+	static void resetPaintTimes() {
+		paintTimes.clear();
+	}
 
 	/**
 	 * Reference to the label that displays the caption text
@@ -143,8 +296,8 @@ public abstract class RTitledPane extends RWindowPane {
 		close.setName("close");
 		close.setOpaque(false);
 		close.setBorder(BorderFactory.createEmptyBorder());
-		close.setIcon(RSwing.close0);
-		close.setPressedIcon(RSwing.close1);
+		close.setIcon(RSwing.close0.getIcon());
+		close.setPressedIcon(RSwing.close1.getIcon());
 		close.addActionListener(hideAction);
 		close.setFocusable(false);
 
@@ -152,16 +305,16 @@ public abstract class RTitledPane extends RWindowPane {
 			pin.setName("pin");
 			pin.setOpaque(false);
 			pin.setBorder(BorderFactory.createEmptyBorder());
-			pin.setIcon(RSwing.pin0);
-			pin.setPressedIcon(RSwing.pin3);
+			pin.setIcon(RSwing.pin0.getIcon());
+			pin.setPressedIcon(RSwing.pin3.getIcon());
 			pin.addActionListener(autoHideAction);
 			pin.setFocusable(false);
 		}
 		floatb.setName("float");
 		floatb.setOpaque(false);
 		floatb.setBorder(BorderFactory.createEmptyBorder());
-		floatb.setIcon(RSwing.float0);
-		floatb.setPressedIcon(RSwing.float1);
+		floatb.setIcon(RSwing.float0.getIcon());
+		floatb.setPressedIcon(RSwing.float1.getIcon());
 		floatb.addActionListener(floatAction);
 		floatb.setFocusable(false);
 
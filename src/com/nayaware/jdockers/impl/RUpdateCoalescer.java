@@ -0,0 +1,175 @@
+package com.nayaware.jdockers.impl;
+
+import java.awt.Component;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import javax.swing.ImageIcon;
+import javax.swing.Timer;
+
+/**
+ * This class coalesces title, icon and content updates of Layout Windows.
+ * Instead of notifying the listeners for each change, a window is marked
+ * dirty and all dirty windows are notified once per frame interval, so a
+ * window whose title changes many times per second causes only one tab
+ * relayout and repaint per frame. Listeners which rebuild a whole pane can
+ * use {@link #afterFlush(Runnable)} to do this once for all windows of the
+ * flush. Like the rest of the Layout Manager, this class must only be used on
+ * the event dispatch thread.
+ */
+class RUpdateCoalescer implements ActionListener {
+
+	/**
+	 * The pending changes of a dirty window.
+	 */
+	private static class Update {
+		boolean title;
+		String oldTitle;
+		boolean icon;
+		ImageIcon oldIcon;
+		boolean content;
+	}
+
+	private final Component pane;
+
+	/**
+	 * Maps each dirty window to its Update, in the order of the first change.
+	 * Windows are only kept while dirty.
+	 */
+	private Map pending = new LinkedHashMap();
+
+	/**
+	 * Tasks to run after the current flush, <code>null</code> if not
+	 * flushing.
+	 */
+	private Set afterFlush;
+
+	private Timer timer;
+
+	RUpdateCoalescer(Component pane) {
+		this.pane = pane;
+	}
+
+	// marking
+	// --------------------------------------------------------------------------------------
+
+	void titleChanged(RLayoutWindow window, String oldTitle) {
+		Update u = mark(window);
+		if (!u.title) {
+			u.title = true;
+			u.oldTitle = oldTitle;
+		}
+	}
+
+	void iconChanged(RLayoutWindow window, ImageIcon oldIcon) {
+		Update u = mark(window);
+		if (!u.icon) {
+			u.icon = true;
+			u.oldIcon = oldIcon;
+		}
+	}
+
+	void contentChanged(RLayoutWindow window) {
+		mark(window).content = true;
+	}
+
+	private Update mark(RLayoutWindow window) {
+		Update u = (Update) pending.get(window);
+		if (u == null) {
+			u = new Update();
+			pending.put(window, u);
+			schedule();
+		}
+		return u;
+	}
+
+	/**
+	 * Forgets the pending changes of a closed window.
+	 */
+	void windowClosed(RLayoutWindow window) {
+		pending.remove(window);
+	}
+
+	private void schedule() {
+		if (timer == null) {
+			timer = new Timer(0, this);
+			timer.setRepeats(false);
+		}
+		if (!timer.isRunning()) {
+			timer.setInitialDelay(RGlobalEventListener.getFrameInterval(pane));
+			timer.start();
+		}
+	}
+
+	/**
+	 * Runs the task after all windows of the current flush were notified, or
+	 * at once if not flushing. A task added more than once runs only once.
+	 */
+	void afterFlush(Runnable task) {
+		if (afterFlush != null) {
+			afterFlush.add(task);
+		} else {
+			task.run();
+		}
+	}
+
+	// flushing
+	// -------------------------------------------------------------------------------------
+
+	public void actionPerformed(ActionEvent e) {
+		flush();
+	}
+
+	/**
+	 * Notifies the listeners of all dirty windows. A window's title and icon
+	 * events carry the value before its first change and the current value;
+	 * no event is fired if the value was changed back.
+	 */
+	void flush() {
+		if (timer != null) {
+			timer.stop();
+		}
+		if (pending.isEmpty()) {
+			return;
+		}
+		if (afterFlush != null) {
+			// called by a listener, flush again later
+			schedule();
+			return;
+		}
+		Map updates = pending;
+		pending = new LinkedHashMap();
+		afterFlush = new LinkedHashSet();
+		try {
+			for (Iterator i = updates.entrySet().iterator(); i.hasNext();) {
+				Map.Entry entry = (Map.Entry) i.next();
+				fire((RLayoutWindow) entry.getKey(), (Update) entry.getValue());
+			}
+			for (Iterator i = afterFlush.iterator(); i.hasNext();) {
+				((Runnable) i.next()).run();
+			}
+		} finally {
+			afterFlush = null;
+		}
+	}
+
+	private static void fire(RLayoutWindow w, Update u) {
+		if (u.title && !RLayoutWindow.equals(u.oldTitle, w.getTitle())) {
+			w.firePropertyChange("title", u.oldTitle, w.getTitle());
+			if (w.getTabName() == null) {
+				w.firePropertyChange("titleForTab", u.oldTitle, w.getTitle());
+			}
+		}
+		if (u.icon && !RLayoutWindow.equals(u.oldIcon, w.getIcon())) {
+			w.firePropertyChange("icon", u.oldIcon, w.getIcon());
+		}
+		if (u.content) {
+			w.fireComponentChanged(null);
+		}
+	}
+}
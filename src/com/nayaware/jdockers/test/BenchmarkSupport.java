@@ -0,0 +1,125 @@
+package com.nayaware.jdockers.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import com.nayaware.jdockers.custom.BasicClosableTabbedPaneUI;
+import com.nayaware.jdockers.custom.JClosableTabbedPane;
+
+/**
+ * A minimal benchmark harness for the main-method benchmarks of this package.
+ * An operation is run a number of times for warm up and then measured on the
+ * event dispatch thread. The result line shows the throughput, the mean and
+ * maximum latency and the bytes allocated per operation (if the VM can tell).
+ */
+class BenchmarkSupport {
+
+	/**
+	 * The operation to measure. <code>setUp()</code> is called before each
+	 * invocation and is not measured.
+	 */
+	static abstract class Operation {
+		void setUp() throws Exception {
+		}
+
+		abstract void run() throws Exception;
+	}
+
+	/**
+	 * Results of the last call to {@link #measure(String, Operation, int, int)}
+	 * in nanoseconds and bytes.
+	 */
+	static long meanTime, maxTime, allocatedBytes;
+
+	private static Method allocatedBytesMethod;
+
+	static {
+		try {
+			Class c = Class.forName("com.sun.management.ThreadMXBean");
+			ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+			if (c.isInstance(bean)) {
+				allocatedBytesMethod = c.getMethod("getThreadAllocatedBytes",
+						new Class[] { long.class });
+			}
+		} catch (Exception e) {
+			// not a VM which can count allocated bytes
+		}
+	}
+
+	/**
+	 * Makes the benchmarks independent of the look and feel's tabbed pane
+	 * implementation, see <code>TabbedPaneBenchmark</code>.
+	 */
+	static void setUpLookAndFeel() throws Exception {
+		UIManager.getLookAndFeel();
+		Class.forName(JClosableTabbedPane.class.getName());
+		UIManager.put("ClosableTabbedPaneUI", BasicClosableTabbedPaneUI.class
+				.getName());
+	}
+
+	/**
+	 * Runs the operation <code>warmups</code> times, then measures it
+	 * <code>iterations</code> times on the event dispatch thread and prints a
+	 * result line.
+	 */
+	static void measure(final String name, final Operation op,
+			final int warmups, final int iterations) throws Exception {
+		final Exception[] failure = new Exception[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				try {
+					for (int i = 0; i < warmups; i++) {
+						op.setUp();
+						op.run();
+					}
+					long total = 0, max = 0, bytes = 0;
+					for (int i = 0; i < iterations; i++) {
+						op.setUp();
+						long allocated = allocatedBytes();
+						long start = System.nanoTime();
+						op.run();
+						long time = System.nanoTime() - start;
+						bytes += allocatedBytes() - allocated;
+						total += time;
+						max = Math.max(max, time);
+					}
+					meanTime = total / iterations;
+					maxTime = max;
+					allocatedBytes = allocatedBytesMethod == null ? -1 : bytes
+							/ iterations;
+				} catch (Exception e) {
+					failure[0] = e;
+				}
+			}
+		});
+		if (failure[0] != null) {
+			throw failure[0];
+		}
+		System.out.println(name + ": "
+				+ (meanTime > 0 ? 1000000000L / meanTime : 0) + " ops/s, mean "
+				+ meanTime / 1000 + " us, max " + maxTime / 1000 + " us, "
+				+ (allocatedBytes < 0 ? "?" : String.valueOf(allocatedBytes))
+				+ " bytes/op");
+	}
+
+	/**
+	 * Returns the bytes allocated by the current thread so far or
+	 * <code>0</code> if the VM can't tell.
+	 */
+	static long allocatedBytes() {
+		if (allocatedBytesMethod == null) {
+			return 0;
+		}
+		try {
+			return ((Long) allocatedBytesMethod.invoke(ManagementFactory
+					.getThreadMXBean(), new Object[] { new Long(Thread
+					.currentThread().getId()) })).longValue();
+		} catch (Exception e) {
+			return 0;
+		}
+	}
+}
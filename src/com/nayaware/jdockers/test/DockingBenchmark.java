@@ -0,0 +1,250 @@
+package com.nayaware.jdockers.test;
+
+import java.awt.Component;
+import java.awt.Container;
+import java.awt.GraphicsEnvironment;
+import java.awt.Window;
+import java.io.InputStream;
+import java.util.Properties;
+
+import javax.swing.JComponent;
+import javax.swing.SwingUtilities;
+
+import com.nayaware.jdockers.DockableWindow;
+import com.nayaware.jdockers.LayoutManager;
+
+/**
+ * This benchmark measures the docking operations
+ * <code>activateLayoutWindow()</code>, <code>hideLayoutWindow()</code>, <code>autohideDockableWindow()</code>,
+ * <code>floatDockableWindow()</code> and <code>redockDockableWindow()</code>
+ * in layouts with 10, 100 and 500 windows (see
+ * <code>LayoutPersistenceBenchmark.createLayout()</code>). Each operation is
+ * followed by the validation of the layout pane, so the time includes the
+ * layout it causes. After each operation the number of components is compared
+ * to the number before to find components which are not released.
+ * <p>
+ * The results are checked against the thresholds in
+ * <code>DockingBenchmark.properties</code>; the benchmark exits with status 1
+ * if one is exceeded. Floating needs a display, so run it with a (virtual)
+ * display to include it or headless without it, e.g.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true com.nayaware.jdockers.test.DockingBenchmark [sizes...]
+ * </pre>
+ *
+ * The <code>benchmark</code> target of the build runs it headless unless
+ * <code>-Dbenchmark.headless=false</code> is given, e.g. under Xvfb.
+ */
+public class DockingBenchmark {
+
+	static final int[] SIZES = { 10, 100, 500 };
+
+	static final String THRESHOLDS = "DockingBenchmark.properties";
+
+	static LayoutManager manager;
+
+	static JComponent layoutPane;
+
+	static DockableWindow target, other;
+
+	static int components;
+
+	static Properties thresholds = new Properties();
+
+	static boolean regression;
+
+	public static void main(String[] args) throws Exception {
+		BenchmarkSupport.setUpLookAndFeel();
+		InputStream in = DockingBenchmark.class.getResourceAsStream(THRESHOLDS);
+		if (in != null) {
+			try {
+				thresholds.load(in);
+			} finally {
+				in.close();
+			}
+		} else {
+			System.out.println("no " + THRESHOLDS + ": thresholds not checked");
+		}
+		int[] sizes = SIZES;
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		if (GraphicsEnvironment.isHeadless()) {
+			System.out.println("headless: floating not measured");
+		}
+		for (int i = 0; i < sizes.length; i++) {
+			benchmark(sizes[i]);
+		}
+		if (regression) {
+			System.out.println("thresholds exceeded");
+			System.exit(1);
+		}
+	}
+
+	static void benchmark(final int windows) throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				manager = LayoutPersistenceBenchmark.createLayout(windows);
+				layoutPane = manager.getLayoutPane();
+				// the first two windows are docked left and bottom
+				target = manager.findDockableWindow("window0");
+				other = manager.findDockableWindow("window1");
+				components = countComponents();
+			}
+		});
+		System.out.println(windows + " windows, " + components
+				+ " components:");
+		int iterations = Math.max(10, 1000 / windows);
+		int warmups = Math.max(5, iterations / 2);
+
+		measure("activateLayoutWindow", windows,
+				new BenchmarkSupport.Operation() {
+					boolean toggle;
+
+					void run() {
+						toggle = !toggle;
+						manager.activateLayoutWindow(toggle ? target : other);
+						layoutPane.validate();
+					}
+				}, warmups, iterations);
+		measure("hideLayoutWindow", windows, new BenchmarkSupport.Operation() {
+			void setUp() {
+				restore();
+			}
+
+			void run() {
+				manager.hideLayoutWindow(target);
+				layoutPane.validate();
+			}
+		}, warmups, iterations);
+		measure("autohideDockableWindow", windows,
+				new BenchmarkSupport.Operation() {
+					void setUp() {
+						restore();
+					}
+
+					void run() {
+						manager.autohideDockableWindow(target);
+						layoutPane.validate();
+					}
+				}, warmups, iterations);
+		measure("redockDockableWindow.autohidden", windows,
+				new BenchmarkSupport.Operation() {
+					void setUp() {
+						restore();
+						manager.autohideDockableWindow(target);
+						layoutPane.validate();
+					}
+
+					void run() {
+						manager.redockDockableWindow(target);
+						layoutPane.validate();
+					}
+				}, warmups, iterations);
+		if (GraphicsEnvironment.isHeadless()) {
+			return;
+		}
+		measure("floatDockableWindow", windows,
+				new BenchmarkSupport.Operation() {
+					void setUp() {
+						restore();
+					}
+
+					void run() {
+						manager.floatDockableWindow(target);
+						layoutPane.validate();
+					}
+				}, warmups, iterations);
+		measure("redockDockableWindow.floated", windows,
+				new BenchmarkSupport.Operation() {
+					void setUp() {
+						restore();
+						manager.floatDockableWindow(target);
+						layoutPane.validate();
+					}
+
+					void run() {
+						manager.redockDockableWindow(target);
+						layoutPane.validate();
+					}
+				}, warmups, iterations);
+	}
+
+	/**
+	 * Measures the operation, restores the initial layout and checks the time,
+	 * allocations and component count growth against the thresholds.
+	 */
+	static void measure(String name, int windows,
+			BenchmarkSupport.Operation op, int warmups, int iterations)
+			throws Exception {
+		BenchmarkSupport.measure("  " + name, op, warmups, iterations);
+		final int[] count = new int[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				restore();
+				count[0] = countComponents();
+			}
+		});
+		int growth = count[0] - components;
+		if (growth != 0) {
+			System.out.println("  " + name + ": " + growth + " components");
+		}
+		check(name, windows, "us", BenchmarkSupport.meanTime / 1000);
+		check(name, windows, "bytes", BenchmarkSupport.allocatedBytes);
+		check(name, windows, "components", growth);
+	}
+
+	/**
+	 * Reports a regression if the value exceeds the threshold
+	 * <code>name.windows.key</code> or, if there's none, <code>key</code>.
+	 */
+	static void check(String name, int windows, String key, long value) {
+		String threshold = thresholds.getProperty(name + "." + windows + "."
+				+ key, thresholds.getProperty(key));
+		if (threshold != null && value > Long.parseLong(threshold.trim())) {
+			System.out.println("  REGRESSION " + name + ": " + value + " "
+					+ key + " > " + threshold.trim());
+			regression = true;
+		}
+	}
+
+	/**
+	 * Shows the target window docked again.
+	 */
+	static void restore() {
+		manager.showLayoutWindow(target);
+		manager.redockDockableWindow(target);
+		layoutPane.validate();
+	}
+
+	/**
+	 * Counts the components of the layout pane and of the visible (floating)
+	 * windows.
+	 */
+	static int countComponents() {
+		int count = countComponents(layoutPane);
+		if (!GraphicsEnvironment.isHeadless()) {
+			Window[] windows = Window.getWindows();
+			for (int i = 0; i < windows.length; i++) {
+				if (windows[i].isShowing()) {
+					count += countComponents(windows[i]);
+				}
+			}
+		}
+		return count;
+	}
+
+	static int countComponents(Component c) {
+		int count = 1;
+		if (c instanceof Container) {
+			Component[] children = ((Container) c).getComponents();
+			for (int i = 0; i < children.length; i++) {
+				count += countComponents(children[i]);
+			}
+		}
+		return count;
+	}
+}
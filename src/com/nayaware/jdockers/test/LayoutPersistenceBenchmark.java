@@ -0,0 +1,149 @@
+package com.nayaware.jdockers.test;
+
+import java.awt.GraphicsEnvironment;
+import java.io.File;
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+
+import com.nayaware.jdockers.DockableWindow;
+import com.nayaware.jdockers.LayoutManager;
+import com.nayaware.jdockers.LayoutWindow;
+import com.nayaware.jdockers.impl.RLayoutManager;
+import com.nayaware.jdockers.impl.RMemento;
+
+/**
+ * This benchmark measures saving and restoring synthetic layouts with 10, 100,
+ * 1000 and 5000 windows: <code>getLayout()</code>, <code>setLayout()</code>,
+ * <code>saveLayout()</code>, <code>loadLayout()</code> and reading and
+ * writing the <code>RMemento</code> tree. The layouts mix docked windows on all
+ * sides, auto-hidden windows, documents and (if there's a display) floating
+ * windows. It runs headless, e.g.
+ * 
+ * <pre>
+ * java -Djava.awt.headless=true com.nayaware.jdockers.test.LayoutPersistenceBenchmark [sizes...]
+ * </pre>
+ */
+public class LayoutPersistenceBenchmark {
+
+	static final int[] SIZES = { 10, 100, 1000, 5000 };
+
+	static final String[] SIDES = { DockableWindow.DOCK_SIDE_LEFT,
+			DockableWindow.DOCK_SIDE_BOTTOM, DockableWindow.DOCK_SIDE_RIGHT,
+			DockableWindow.DOCK_SIDE_TOP };
+
+	static LayoutManager manager;
+
+	static String layout;
+
+	static RMemento memento;
+
+	public static void main(String[] args) throws Exception {
+		BenchmarkSupport.setUpLookAndFeel();
+		int[] sizes = SIZES;
+		if (args.length > 0) {
+			sizes = new int[args.length];
+			for (int i = 0; i < args.length; i++) {
+				sizes[i] = Integer.parseInt(args[i]);
+			}
+		}
+		if (GraphicsEnvironment.isHeadless()) {
+			System.out.println("headless: layouts without floating windows");
+		}
+		for (int i = 0; i < sizes.length; i++) {
+			benchmark(sizes[i]);
+		}
+	}
+
+	static void benchmark(final int windows) throws Exception {
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				manager = createLayout(windows);
+				layout = manager.getLayout();
+			}
+		});
+		System.out.println(windows + " windows, " + layout.length()
+				+ " chars:");
+		int iterations = Math.max(5, 2000 / windows);
+		int warmups = Math.max(2, iterations / 2);
+		final File file = File.createTempFile("layout", ".xml");
+		file.deleteOnExit();
+
+		BenchmarkSupport.measure("  getLayout",
+				new BenchmarkSupport.Operation() {
+					void run() {
+						manager.getLayout();
+					}
+				}, warmups, iterations);
+		BenchmarkSupport.measure("  setLayout",
+				new BenchmarkSupport.Operation() {
+					void run() throws Exception {
+						manager.setLayout(layout);
+					}
+				}, warmups, iterations);
+		BenchmarkSupport.measure("  saveLayout",
+				new BenchmarkSupport.Operation() {
+					void run() throws Exception {
+						manager.saveLayout(file);
+					}
+				}, warmups, iterations);
+		BenchmarkSupport.measure("  loadLayout",
+				new BenchmarkSupport.Operation() {
+					void run() throws Exception {
+						manager.loadLayout(file);
+					}
+				}, warmups, iterations);
+		BenchmarkSupport.measure("  RMemento.read",
+				new BenchmarkSupport.Operation() {
+					void run() throws Exception {
+						memento = RMemento.read(new StringReader(layout));
+					}
+				}, warmups, iterations);
+		BenchmarkSupport.measure("  RMemento.write",
+				new BenchmarkSupport.Operation() {
+					void run() {
+						memento.write(new PrintWriter(new StringWriter()));
+					}
+				}, warmups, iterations);
+
+		file.delete();
+	}
+
+	/**
+	 * Creates a layout with the specified number of windows. Every tenth
+	 * window is a document, every fifth dockable window is auto-hidden and
+	 * every seventh is floating (unless headless), all others are docked on
+	 * all four sides.
+	 */
+	static LayoutManager createLayout(int windows) {
+		LayoutManager manager = new RLayoutManager();
+		JComponent layoutPane = manager.getLayoutPane();
+		layoutPane.setSize(1600, 1200);
+		boolean headless = GraphicsEnvironment.isHeadless();
+		for (int i = 0; i < windows; i++) {
+			String name = "window" + i;
+			LayoutWindow w;
+			if (i % 10 == 9) {
+				w = manager.createDocumentWindow(name, "Document " + i, null);
+			} else {
+				DockableWindow d = manager.createDockableWindow(name,
+						"Window " + i, null);
+				d.setInitialDockSide(SIDES[i % SIDES.length]);
+				if (i % 5 == 4) {
+					d.setInitialDockState(DockableWindow.DOCK_STATE_AUTOHIDDEN);
+				} else if (i % 7 == 6 && !headless) {
+					d.setInitialDockState(DockableWindow.DOCK_STATE_FLOATED);
+				}
+				w = d;
+			}
+			w.addComponent(new JLabel(name), name);
+			manager.showLayoutWindow(w);
+		}
+		layoutPane.validate();
+		return manager;
+	}
+}
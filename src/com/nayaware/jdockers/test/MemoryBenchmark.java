@@ -0,0 +1,58 @@
+package com.nayaware.jdockers.test;
+
+import java.util.Map;
+
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import com.nayaware.jdockers.LayoutManager;
+import com.nayaware.jdockers.LayoutWindow;
+import com.nayaware.jdockers.impl.RLayoutManager;
+
+/**
+ * This benchmark measures the heap used per registered window and compares it
+ * with the Layout Manager's own estimate. It runs headless, e.g.
+ * 
+ * <pre>
+ * java -Djava.awt.headless=true com.nayaware.jdockers.test.MemoryBenchmark
+ * </pre>
+ */
+public class MemoryBenchmark {
+
+	static final int WINDOWS = 5000;
+
+	static LayoutManager manager;
+
+	public static void main(String[] args) throws Exception {
+		UIManager.getLookAndFeel();
+
+		long before = usedMemory();
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				manager = new RLayoutManager();
+				for (int i = 0; i < WINDOWS; i++) {
+					String type = i % 2 == 0 ? LayoutManager.TYPE_DOCKABLE
+							: LayoutManager.TYPE_DOCUMENT;
+					LayoutWindow w = manager.createLayoutWindow("window" + i,
+							"Window " + i, null, type);
+					w.addComponent(new JLabel("Component " + i), "tab");
+				}
+			}
+		});
+		long after = usedMemory();
+
+		System.out.println(WINDOWS + " windows: " + (after - before) / WINDOWS
+				+ " bytes/window measured (including the labels)");
+		Map stats = manager.getMemoryStats();
+		System.out.println("estimated: " + stats);
+	}
+
+	static long usedMemory() {
+		Runtime r = Runtime.getRuntime();
+		for (int i = 0; i < 4; i++) {
+			System.gc();
+		}
+		return r.totalMemory() - r.freeMemory();
+	}
+}
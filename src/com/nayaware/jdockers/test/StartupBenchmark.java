@@ -0,0 +1,72 @@
+package com.nayaware.jdockers.test;
+
+import javax.swing.JComponent;
+import javax.swing.JLabel;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import com.nayaware.jdockers.LayoutManager;
+import com.nayaware.jdockers.LayoutWindow;
+import com.nayaware.jdockers.impl.RLayoutManager;
+
+/**
+ * This benchmark measures the startup of the layout system: creating the
+ * Layout Manager and creating, opening and showing the first windows. Class
+ * initialization and resource loading only happen once per JVM so each run
+ * must use a new JVM, e.g.
+ * 
+ * <pre>
+ * java -Djava.awt.headless=true com.nayaware.jdockers.test.StartupBenchmark
+ * </pre>
+ */
+public class StartupBenchmark {
+
+	static final int DOCKABLES = 10;
+
+	static final int DOCUMENTS = 10;
+
+	static long managerTime, windowsTime, layoutTime;
+
+	public static void main(String[] args) throws Exception {
+		UIManager.getLookAndFeel();
+
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				long start = System.nanoTime();
+				LayoutManager manager = new RLayoutManager();
+				JComponent layoutPane = manager.getLayoutPane();
+				managerTime = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				for (int i = 0; i < DOCKABLES; i++) {
+					show(manager, "dockable" + i, LayoutManager.TYPE_DOCKABLE);
+				}
+				for (int i = 0; i < DOCUMENTS; i++) {
+					show(manager, "document" + i, LayoutManager.TYPE_DOCUMENT);
+				}
+				windowsTime = System.nanoTime() - start;
+
+				start = System.nanoTime();
+				layoutPane.setSize(1024, 768);
+				layoutPane.validate();
+				layoutTime = System.nanoTime() - start;
+			}
+		});
+
+		System.out.println("layout manager " + millis(managerTime) + " ms, "
+				+ (DOCKABLES + DOCUMENTS) + " windows " + millis(windowsTime)
+				+ " ms, layout " + millis(layoutTime) + " ms, total "
+				+ millis(managerTime + windowsTime + layoutTime) + " ms");
+	}
+
+	static void show(LayoutManager manager, String name, String type) {
+		LayoutWindow w = manager.createLayoutWindow(name, name, null, type);
+		w.addComponent(new JLabel(name), name);
+		manager.openLayoutWindow(w);
+		manager.showLayoutWindow(w);
+	}
+
+	static long millis(long nanos) {
+		return nanos / 1000000;
+	}
+}
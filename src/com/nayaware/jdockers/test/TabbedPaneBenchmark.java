@@ -0,0 +1,86 @@
+package com.nayaware.jdockers.test;
+
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
+import javax.swing.UIManager;
+
+import com.nayaware.jdockers.custom.BasicClosableTabbedPaneUI;
+import com.nayaware.jdockers.custom.JClosableTabbedPane;
+
+/**
+ * This benchmark measures adding, renaming and selecting tabs of a
+ * <code>JClosableTabbedPane</code> with 10, 100 and 1000 tabs, including the
+ * layout of the tabbed pane after each operation. It runs headless, e.g.
+ *
+ * <pre>
+ * java -Djava.awt.headless=true com.nayaware.jdockers.test.TabbedPaneBenchmark
+ * </pre>
+ */
+public class TabbedPaneBenchmark {
+
+	static final int[] SIZES = { 10, 100, 1000 };
+
+	static final int REPEAT = 200;
+
+	public static void main(String[] args) throws Exception {
+		// use the basic implementation independent of the look and feel (the
+		// tabbed pane's static initializer must run first as it sets its own
+		// and it expects an initialized look and feel)
+		UIManager.getLookAndFeel();
+		Class.forName(JClosableTabbedPane.class.getName());
+		UIManager.put("ClosableTabbedPaneUI", BasicClosableTabbedPaneUI.class
+				.getName());
+
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				// warm up
+				for (int i = 0; i < 3; i++) {
+					benchmark(100, false);
+				}
+				for (int i = 0; i < SIZES.length; i++) {
+					benchmark(SIZES[i], true);
+				}
+			}
+		});
+	}
+
+	static void benchmark(int tabs, boolean print) {
+		JClosableTabbedPane t = new JClosableTabbedPane(JTabbedPane.TOP,
+				JTabbedPane.SCROLL_TAB_LAYOUT);
+		t.setSize(800, 600);
+
+		long start = System.nanoTime();
+		for (int i = 0; i < tabs; i++) {
+			t.addTab("Document " + i + ".java", new JLabel("Component " + i));
+			t.doLayout();
+		}
+		long add = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < REPEAT; i++) {
+			int index = i % tabs;
+			t.setTitleAt(index, (i % 2 == 0 ? "*" : "") + "Document " + index
+					+ ".java");
+			t.doLayout();
+		}
+		long rename = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		for (int i = 0; i < REPEAT; i++) {
+			t.setSelectedIndex(i % tabs);
+			t.doLayout();
+		}
+		long select = System.nanoTime() - start;
+
+		if (print) {
+			System.out.println(tabs + " tabs: add " + micros(add, tabs)
+					+ " us/op, rename " + micros(rename, REPEAT)
+					+ " us/op, select " + micros(select, REPEAT) + " us/op");
+		}
+	}
+
+	static long micros(long nanos, int ops) {
+		return nanos / ops / 1000;
+	}
+}
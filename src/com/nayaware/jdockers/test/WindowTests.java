@@ -1,20 +1,38 @@
 package com.nayaware.jdockers.test;
 
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.io.IOException;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.swing.ImageIcon;
+import javax.swing.JComponent;
 import javax.swing.JFrame;
+import javax.swing.JLabel;
+import javax.swing.JTabbedPane;
+import javax.swing.SwingUtilities;
 
+import com.nayaware.jdockers.AsyncLayoutManager;
+import com.nayaware.jdockers.ContentProvider;
 import com.nayaware.jdockers.DockableWindow;
 import com.nayaware.jdockers.LayoutFactory;
 import com.nayaware.jdockers.LayoutManager;
 import com.nayaware.jdockers.LayoutManagerException;
+import com.nayaware.jdockers.LayoutMetrics;
 import com.nayaware.jdockers.LayoutWindow;
+import com.nayaware.jdockers.StartupPipeline;
 import com.nayaware.jdockers.impl.RLayoutManager;
 import com.nayaware.jdockers.impl.RLayoutPane;
+import com.nayaware.jdockers.impl.RLayoutWindow;
 import com.nayaware.jdockers.util.Lookup;
 
 import junit.framework.TestCase;
@@ -231,6 +249,318 @@ public class WindowTests extends TestCase {
 		assertEquals(1, openComponents());
 	}
 
+	static Callable append(final List calls, final String name) {
+		return new Callable() {
+			public Object call() {
+				calls.add(name);
+				return name;
+			}
+		};
+	}
+
+	public void test07() throws Exception {
+		manager = LayoutFactory.getLayoutManager();
+
+		f = new JFrame("Test 07");
+		f.getContentPane().add(manager.getLayoutPane());
+		f.setSize(320, 200);
+		f.show();
+
+		AsyncLayoutManager async = manager.async();
+		List calls = new ArrayList();
+
+		// test: calls are executed in the order they were made
+		Future c1 = async.submit(append(calls, "c1"));
+		Future w = async.createDockableWindow("d", "A Window", icon);
+		Future c2 = async.submit(append(calls, "c2"));
+		assertEquals("c2", c2.get());
+		assertTrue(c1.isDone());
+		assertEquals(Arrays.asList(new String[] { "c1", "c2" }), calls);
+		assertSame(manager.findLayoutWindow("d"), w.get());
+
+		// test: a failed call is reported by get(), later calls still run
+		Future failed = async.createDockableWindow("d", null, null);
+		Future c3 = async.submit(append(calls, "c3"));
+		try {
+			failed.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof LayoutManagerException);
+		}
+		assertEquals("c3", c3.get());
+
+		// test: so is a failed call without a result
+		async.showLayoutWindow((LayoutWindow) w.get()).get();
+		assertEquals(1, openComponents());
+		try {
+			async.openLayoutWindow((LayoutWindow) w.get()).get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof LayoutManagerException);
+		}
+	}
+
+	public void test08() {
+		manager = LayoutFactory.getLayoutManager();
+
+		RLayoutWindow w = (RLayoutWindow) manager.createDockableWindow("d",
+				"A Window", icon);
+		final List events = new ArrayList();
+		w.addPropertyChangeListener(new PropertyChangeListener() {
+			public void propertyChange(PropertyChangeEvent e) {
+				if ("title".equals(e.getPropertyName())) {
+					events.add(e);
+				}
+			}
+		});
+
+		// test: many title changes are notified once, after the flush
+		for (int i = 1; i <= 5; i++) {
+			w.setTitle("Title " + i);
+		}
+		flushUpdates();
+		assertEquals(1, events.size());
+		PropertyChangeEvent e = (PropertyChangeEvent) events.get(0);
+		assertEquals("A Window", e.getOldValue());
+		assertEquals("Title 5", e.getNewValue());
+
+		// test: nothing is notified if the title was changed back
+		events.clear();
+		w.setTitle("Title 6");
+		w.setTitle("Title 5");
+		flushUpdates();
+		assertEquals(0, events.size());
+	}
+
+	public void test09() throws Exception {
+		manager = LayoutFactory.getLayoutManager();
+
+		f = new JFrame("Test 09");
+		f.getContentPane().add(manager.getLayoutPane());
+		f.setSize(320, 200);
+		f.show();
+
+		final List created = new ArrayList();
+		final CountDownLatch loads = new CountDownLatch(6);
+		ContentProvider provider = new ContentProvider() {
+			public Object loadContent(LayoutWindow window) throws Exception {
+				try {
+					if ("fail".equals(window.getName())) {
+						throw new IOException("can't load");
+					}
+					return window.getName();
+				} finally {
+					loads.countDown();
+				}
+			}
+
+			public JComponent createComponent(LayoutWindow window,
+					Object content) {
+				created.add(content);
+				return new JLabel((String) content);
+			}
+		};
+
+		final StartupPipeline pipeline = manager.createStartupPipeline();
+		pipeline.addDockableWindow("low", "A Window", icon, provider, 0);
+		pipeline.addDockableWindow("high", "A Window", icon, provider, 2);
+		pipeline.addDockableWindow("fail", "A Window", icon, provider, 1);
+		LayoutWindow shown = pipeline.addDockableWindow("shown", "A Window",
+				icon, provider, 0);
+		LayoutWindow closed = pipeline.addDockableWindow("closed",
+				"A Window", icon, provider, 3);
+		pipeline.addDocumentWindow("doc", "A Window", icon, provider, 2);
+		shown.show();
+		closed.close();
+
+		// start on the event dispatch thread and keep it busy until all
+		// contents are loaded, so that they are assembled together
+		final Future[] done = new Future[1];
+		SwingUtilities.invokeAndWait(new Runnable() {
+			public void run() {
+				done[0] = pipeline.start();
+				try {
+					loads.await();
+				} catch (InterruptedException e) {
+				}
+			}
+		});
+
+		// test: the first failure is reported by get()
+		try {
+			done[0].get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof LayoutManagerException);
+			assertTrue(e.getCause().getCause() instanceof IOException);
+		}
+
+		// test: shown windows first, then by priority, then by declaration;
+		// the closed window gets no component
+		assertEquals(Arrays.asList(new String[] { "shown", "high", "doc",
+				"low" }), created);
+	}
+
+	public void test10() {
+		manager = LayoutFactory.getLayoutManager();
+
+		f = new JFrame("Test 10");
+		f.getContentPane().add(manager.getLayoutPane());
+		f.setSize(320, 200);
+		f.show();
+
+		RLayoutWindow w = (RLayoutWindow) manager.createDockableWindow("d",
+				"A Window", icon);
+		w.show();
+		JLabel a = new JLabel("a"), b = new JLabel("b"), c = new JLabel("c");
+		w.addComponent(a, "x");
+		w.addComponent(b, "y");
+		w.addComponent(c, "x");
+
+		// test: removing the first of two tabs with the same name makes the
+		// second one known by that name
+		w.removeComponent("x");
+		assertEquals(Arrays.asList(new JComponent[] { b, c }), Arrays
+				.asList(w.getAllComponents()));
+		w.setActiveComponent("x");
+		assertSame(c, w.getActiveComponent());
+		JTabbedPane tabs = tabsOf(c);
+		assertEquals(2, tabs.getTabCount());
+		assertEquals("y", tabs.getTitleAt(0));
+		assertEquals("x", tabs.getTitleAt(1));
+		assertEquals(1, tabs.getSelectedIndex());
+
+		// test: and removing it by that name removes the second one
+		w.removeComponent("x");
+		assertEquals(Arrays.asList(new JComponent[] { b }), Arrays.asList(w
+				.getAllComponents()));
+		assertSame(b, w.getActiveComponent());
+		w.removeComponent("x");
+		assertEquals(1, w.getAllComponents().length);
+	}
+
+	public void test11() {
+		manager = LayoutFactory.getLayoutManager();
+
+		f = new JFrame("Test 11");
+		f.getContentPane().add(manager.getLayoutPane());
+		f.setSize(320, 200);
+		f.show();
+
+		RLayoutWindow w = (RLayoutWindow) manager.createDockableWindow("d",
+				"A Window", icon);
+		w.show();
+		JLabel a = new JLabel("a"), b = new JLabel("b"), c = new JLabel("c");
+		w.addComponent(a, "a");
+		w.addComponent(b, "b");
+		w.addComponent(c, "c");
+		w.setActiveComponent("c");
+
+		// test: removing a tab in front of the active one keeps it active
+		w.removeComponent("a");
+		assertSame(c, w.getActiveComponent());
+		JTabbedPane tabs = tabsOf(c);
+		assertEquals(2, tabs.getTabCount());
+		assertEquals(1, tabs.getSelectedIndex());
+		assertSame(c, tabs.getComponentAt(1));
+
+		// test: the remaining tabs are still found by name
+		w.setActiveComponent("b");
+		assertSame(b, w.getActiveComponent());
+		assertEquals(0, tabs.getSelectedIndex());
+
+		// test: removing the active last tab activates the one before
+		w.setActiveComponent("c");
+		w.removeComponent("c");
+		assertSame(b, w.getActiveComponent());
+	}
+
+	public void test12() {
+		manager = LayoutFactory.getLayoutManager();
+
+		f = new JFrame("Test 12");
+		f.getContentPane().add(manager.getLayoutPane());
+		f.setSize(320, 200);
+		f.show();
+
+		RLayoutWindow w = (RLayoutWindow) manager.createDockableWindow("d",
+				"A Window", icon);
+		w.show();
+		JLabel a = new JLabel("a"), b = new JLabel("b"), c = new JLabel("c"),
+				d = new JLabel("d");
+		w.addComponent(a, "a");
+		w.addComponent(b, "b");
+		w.setActiveComponent("b");
+		JTabbedPane tabs = tabsOf(a);
+
+		// test: bulk add appends to the existing tabbed pane
+		w.addComponents(new JComponent[] { c, d }, new String[] { "c", "d" },
+				null);
+		assertEquals(Arrays.asList(new JComponent[] { a, b, c, d }), Arrays
+				.asList(w.getAllComponents()));
+		assertSame(tabs, tabsOf(d));
+		assertEquals(4, tabs.getTabCount());
+		assertEquals("c", tabs.getTitleAt(2));
+		assertEquals("d", tabs.getTitleAt(3));
+		assertSame(b, w.getActiveComponent());
+		assertEquals(1, tabs.getSelectedIndex());
+
+		// test: the added tabs are found by name
+		w.setActiveComponent("d");
+		assertEquals(3, tabs.getSelectedIndex());
+
+		// test: bulk add of nothing changes nothing
+		w.addComponents(new JComponent[0], new String[0], null);
+		assertEquals(4, tabs.getTabCount());
+	}
+
+	public void test13() {
+		manager = LayoutFactory.getLayoutManager();
+
+		f = new JFrame("Test 13");
+		f.getContentPane().add(manager.getLayoutPane());
+		f.setSize(320, 200);
+		f.show();
+
+		LayoutMetrics metrics = manager.getMetrics();
+		DockableWindow w1 = manager.createDockableWindow("d1", "A Window",
+				icon);
+		DockableWindow w2 = manager.createDockableWindow("d2", "A Window",
+				icon);
+		LayoutWindow w3 = manager.createDocumentWindow("d3", "A Window", icon);
+
+		// test: opened windows are counted at once
+		assertEquals(2, metrics.getDockableWindowCount());
+		assertEquals(1, metrics.getDocumentWindowCount());
+		assertEquals(0, metrics.getShownWindowCount());
+
+		// test: shown windows are counted by dock state
+		w1.show();
+		manager.autohideLayoutWindow(w2);
+		w3.show();
+		assertEquals(3, metrics.getShownWindowCount());
+		assertEquals(1, metrics.getDockedWindowCount());
+		assertEquals(1, metrics.getAutoHiddenWindowCount());
+		assertEquals(0, metrics.getFloatingWindowCount());
+
+		// test: hidden and closed windows are not counted anymore
+		w2.hide();
+		w2.close();
+		assertEquals(2, metrics.getShownWindowCount());
+		assertEquals(0, metrics.getAutoHiddenWindowCount());
+		assertEquals(1, metrics.getDockableWindowCount());
+		assertTrue(metrics.getComponentCount() > 0);
+	}
+
+	private static JTabbedPane tabsOf(JComponent comp) {
+		return (JTabbedPane) SwingUtilities.getAncestorOfClass(
+				JTabbedPane.class, comp);
+	}
+
+	private void flushUpdates() {
+		((RLayoutManager) manager).flushUpdatesForTest();
+	}
+
 	private int openComponents() {
 		return ((RLayoutPane) manager.getLayoutPane()).componentCountForTest();
 	}